@@ -0,0 +1,61 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.StdConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Lets clients ask for {@code application/x-jackson-smile} or {@code application/cbor} instead of JSON
+ * through the {@code Accept} header. Both mappers start from Boot's {@link Jackson2ObjectMapperBuilder}, so
+ * they carry the same modules as the JSON one, but write {@link java.time.LocalDateTime} as a numeric array
+ * rather than an ISO string and pages in the slim {@link PagedModel} envelope. JSON pages keep their original
+ * shape for existing clients.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binary(builder)
+                .factory(new SmileFactory())
+                .build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binary(builder)
+                .factory(new CBORFactory())
+                .build());
+    }
+
+    private static Jackson2ObjectMapperBuilder binary(final Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .mixIn(PageImpl.class, SlimPageMixin.class);
+    }
+
+    /**
+     * What {@code spring.data.web.pageable.serialization-mode: via-dto} does, for the binary mappers only.
+     */
+    @JsonSerialize(converter = SlimPageConverter.class)
+    private abstract static class SlimPageMixin {
+    }
+
+    private static final class SlimPageConverter extends StdConverter<Page<?>, PagedModel<?>> {
+
+        @Override
+        public PagedModel<?> convert(final Page<?> page) {
+            return new PagedModel<>(page);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String OVERDUE_TASKS_CACHE = "overdueTasks";
+    public static final String TASK_STATISTICS_CACHE = "taskStatistics";
+    static final List<String> CACHE_NAMES = List.of(OVERDUE_TASKS_CACHE, TASK_STATISTICS_CACHE);
+
+    /**
+     * Per-instance Caffeine caches, fronting the shared tier from {@link SharedCacheConfig} when it is enabled.
+     */
+    @Bean
+    @Primary
+    public CacheManager cacheManager(@Value("${planner.cache.maximum-size}") final long maximumSize,
+                                     @Value("${planner.cache.time-to-live}") final Duration timeToLive,
+                                     @Qualifier(SharedCacheConfig.SHARED_CACHE_MANAGER)
+                                     final ObjectProvider<CacheManager> sharedCacheManager,
+                                     final ObjectProvider<CacheInvalidationBus> invalidationBus) {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(CACHE_NAMES);
+        final CacheManager shared = sharedCacheManager.getIfAvailable();
+        if (shared == null) {
+            return new TransactionAwareCacheManagerProxy(cacheManager);
+        }
+        return new TransactionAwareCacheManagerProxy(
+                new TwoLevelCacheManager(cacheManager, shared, invalidationBus.getObject()));
+    }
+}
@@ -0,0 +1,24 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache evictions to the other instances, which drop the entry from their near cache.
+ * Delivery is best effort; the near cache's short time-to-live bounds how long a missed message matters.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(String cacheName, String key);
+
+    /**
+     * Registers a listener for invalidations published by other instances. {@code key} is null when
+     * the whole cache was cleared.
+     */
+    void subscribe(InvalidationListener listener);
+
+    @FunctionalInterface
+    interface InvalidationListener {
+
+        void onInvalidation(String cacheName, String key);
+    }
+}
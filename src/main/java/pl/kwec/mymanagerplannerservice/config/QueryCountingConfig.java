@@ -0,0 +1,83 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} in a datasource-proxy that counts executed statements per
+ * thread in {@link net.ttddyy.dsproxy.QueryCountHolder} and feeds the slow and sampled SQL logs.
+ * It runs after every other data source post-processor, so the counts cover exactly what the
+ * application sends to the pool.
+ */
+@Configuration
+public class QueryCountingConfig {
+
+    /**
+     * Post-processors are created before placeholder resolution is available to {@code @Value}, so the
+     * logging settings are bound straight from the environment.
+     */
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor(final Environment environment) {
+        final Binder binder = Binder.get(environment);
+        final Duration slowThreshold = binder.bind("planner.sql-logging.slow-threshold", Duration.class).get();
+        final double sampleRate = binder.bind("planner.sql-logging.sample-rate", Double.class).get();
+        return new QueryCountingDataSourcePostProcessor(new SqlLoggingListener(slowThreshold, sampleRate));
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryMethodTrackingPostProcessor() {
+        return new RepositoryMethodTrackingPostProcessor();
+    }
+
+    private static final class QueryCountingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final SqlLoggingListener sqlLoggingListener;
+
+        private QueryCountingDataSourcePostProcessor(final SqlLoggingListener sqlLoggingListener) {
+            this.sqlLoggingListener = sqlLoggingListener;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            // A lazy proxy only defers borrowing from pools that are data source beans, and counted, themselves.
+            if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                    && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .countQuery()
+                        .listener(sqlLoggingListener)
+                        .build();
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    private static final class RepositoryMethodTrackingPostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+            if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, repositoryInformation) ->
+                                proxyFactory.addAdvice(new RepositoryMethodTracker(repositoryInformation))));
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active when {@code planner.datasource.replica.enabled=true}. Replaces the single auto-configured pool
+ * with a primary pool ({@code spring.datasource.*}) and a replica pool ({@code planner.datasource.replica.*}),
+ * and routes the application's connections between them with a {@link ReplicaRoutingDataSource}.
+ * Both pools report the usual {@code hikaricp.connections.*} metrics tagged with their pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "planner.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    static final String PRIMARY_POOL = "primary";
+    static final String REPLICA_POOL = "replica";
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(PRIMARY_POOL);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("planner.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(final DataSourceProperties properties,
+                                       @Value("${planner.datasource.replica.url}") final String url,
+                                       @Value("${planner.datasource.replica.username}") final String username,
+                                       @Value("${planner.datasource.replica.password}") final String password) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(REPLICA_POOL);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") final DataSource primary,
+                          @Qualifier("replicaDataSource") final DataSource replica,
+                          @Value("${planner.datasource.replica.read-your-writes}") final Duration readYourWrites,
+                          final MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, readYourWrites, meterRegistry));
+    }
+}
@@ -0,0 +1,66 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * {@link CacheInvalidationBus} over a Redis pub/sub channel. Each instance tags its messages with a
+ * random origin and ignores its own.
+ */
+@Slf4j
+class RedisCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic channel;
+    private final ObjectMapper objectMapper;
+
+    RedisCacheInvalidationBus(final StringRedisTemplate redisTemplate,
+                              final RedisMessageListenerContainer listenerContainer,
+                              final String channel,
+                              final ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.channel = ChannelTopic.of(channel);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(final String cacheName, final String key) {
+        try {
+            redisTemplate.convertAndSend(channel.getTopic(),
+                    objectMapper.writeValueAsString(new Invalidation(origin, cacheName, key)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cache invalidation", e);
+        }
+    }
+
+    @Override
+    public void subscribe(final InvalidationListener listener) {
+        listenerContainer.addMessageListener((final Message message, final byte[] pattern) -> {
+            final Invalidation invalidation;
+            try {
+                invalidation = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                        Invalidation.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Ignoring malformed cache invalidation on {}", channel.getTopic(), e);
+                return;
+            }
+            if (!origin.equals(invalidation.origin())) {
+                listener.onInvalidation(invalidation.cacheName(), invalidation.key());
+            }
+        }, channel);
+    }
+
+    private record Invalidation(String origin, String cacheName, String key) {
+    }
+}
@@ -0,0 +1,159 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+import pl.kwec.mymanagerplannerservice.filter.UserIdAuthFilter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary. A user whose
+ * write committed less than {@code readYourWrites} ago keeps reading from the primary, so replication
+ * lag never hides their own change. The transaction manager borrows a connection before it marks the
+ * transaction read-only, so this is only correct behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers the borrow
+ * to the first statement.
+ * <p>
+ * Recent writers are remembered per node, and the commit time is also sent back in the
+ * {@value #LAST_WRITE_COOKIE} cookie. Read-your-writes therefore holds on any node for clients that return
+ * the cookie, but only on the node that took the write (or behind sticky sessions) for those that don't.
+ * The cookie is compared with this node's clock, so clock skew between nodes shortens or extends the window.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String LAST_WRITE_COOKIE = "planner-last-write";
+    private static final long MAX_TRACKED_WRITERS = 100_000;
+
+    private enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private enum Reason {
+        READ_WRITE(Route.PRIMARY, "read-write"),
+        READ_YOUR_WRITES(Route.PRIMARY, "read-your-writes"),
+        READ_ONLY(Route.REPLICA, "read-only");
+
+        private final Route route;
+        private final String tag;
+
+        Reason(final Route route, final String tag) {
+            this.route = route;
+            this.tag = tag;
+        }
+    }
+
+    private final Cache<Long, Boolean> recentWriters;
+    private final Duration readYourWrites;
+    private final Map<Reason, Counter> routed = new EnumMap<>(Reason.class);
+
+    ReplicaRoutingDataSource(final DataSource primary, final DataSource replica, final Duration readYourWrites,
+                             final MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.readYourWrites = readYourWrites;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(MAX_TRACKED_WRITERS)
+                .build();
+        for (final Reason reason : Reason.values()) {
+            routed.put(reason, Counter.builder("planner.datasource.routed")
+                    .description("Connections borrowed per pool and routing reason")
+                    .tag("pool", reason.route.name().toLowerCase(Locale.ROOT))
+                    .tag("reason", reason.tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        final Reason reason = reason(currentUserId());
+        routed.get(reason).increment();
+        return reason.route;
+    }
+
+    private Reason reason(final Long userId) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                rememberWriterOnCommit(userId);
+            }
+            return Reason.READ_WRITE;
+        }
+        if (userId != null && (recentWriters.getIfPresent(userId) != null || wroteRecentlyPerCookie())) {
+            return Reason.READ_YOUR_WRITES;
+        }
+        return Reason.READ_ONLY;
+    }
+
+    private void rememberWriterOnCommit(final Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rememberWriter(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rememberWriter(userId);
+            }
+        });
+    }
+
+    private void rememberWriter(final Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null && !attributes.getResponse().isCommitted()) {
+            final String writtenAt = Long.toString(System.currentTimeMillis());
+            final ResponseCookie cookie = ResponseCookie.from(LAST_WRITE_COOKIE, writtenAt)
+                    .path("/")
+                    .maxAge(readYourWrites)
+                    .httpOnly(true)
+                    .build();
+            attributes.getResponse().addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+
+    /**
+     * A timestamp further in the future than the window is not trusted, so a forged cookie cannot pin a
+     * client to the primary.
+     */
+    private boolean wroteRecentlyPerCookie() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        final Cookie cookie = WebUtils.getCookie(attributes.getRequest(), LAST_WRITE_COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            final long age = System.currentTimeMillis() - Long.parseLong(cookie.getValue());
+            return Math.abs(age) < readYourWrites.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static Long currentUserId() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return attributes.getAttribute(UserIdAuthFilter.USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof Long userId ? userId : null;
+    }
+}
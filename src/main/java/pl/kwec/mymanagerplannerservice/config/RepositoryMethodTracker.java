@@ -0,0 +1,39 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.repository.core.RepositoryInformation;
+
+/**
+ * Remembers which repository method the current thread is executing, so statement listeners can name
+ * the repository call that issued a query. Nested repository calls restore the outer method on exit.
+ */
+final class RepositoryMethodTracker implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final String repositoryName;
+
+    RepositoryMethodTracker(final RepositoryInformation repositoryInformation) {
+        this.repositoryName = repositoryInformation.getRepositoryInterface().getSimpleName();
+    }
+
+    static String currentMethod() {
+        return CURRENT_METHOD.get();
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final String previous = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT_METHOD.remove();
+            } else {
+                CURRENT_METHOD.set(previous);
+            }
+        }
+    }
+}
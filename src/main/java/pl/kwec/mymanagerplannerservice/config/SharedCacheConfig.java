@@ -0,0 +1,84 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Active when {@code planner.cache.shared.enabled=true}. Every instance keeps its Caffeine near cache and
+ * shares a Redis tier ({@code spring.data.redis.*}) with the others; {@link CacheConfig} combines both into
+ * {@link TwoLevelCache}s. Entries are namespaced per user and keyed by the user's task version, e.g.
+ * {@code planner:overdueTasks:user:42:W/"..."}, and evictions are broadcast on
+ * {@code planner.cache.shared.invalidation-channel}. Because an entry never outlives its version,
+ * {@code planner.cache.shared.time-to-live} only bounds memory, not staleness. Values are stored as JSON
+ * with their class name, so cached collections must be types Jackson can create, e.g. ArrayList.
+ */
+@Configuration
+@ConditionalOnProperty(name = "planner.cache.shared.enabled", havingValue = "true")
+public class SharedCacheConfig {
+
+    static final String SHARED_CACHE_MANAGER = "sharedCacheManager";
+
+    @Bean(SHARED_CACHE_MANAGER)
+    RedisCacheManager sharedCacheManager(final RedisConnectionFactory connectionFactory,
+                                         final ObjectMapper objectMapper,
+                                         @Value("${planner.cache.shared.key-prefix}") final String keyPrefix,
+                                         @Value("${planner.cache.shared.time-to-live}") final Duration timeToLive) {
+        final GenericJackson2JsonRedisSerializer serializer = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(objectMapper.copy())
+                .defaultTyping(true)
+                .build();
+        final RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(timeToLive)
+                .disableCachingNullValues()
+                .computePrefixWith(cacheName -> keyPrefix + cacheName + ":user:")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(configuration)
+                .initialCacheNames(Set.copyOf(CacheConfig.CACHE_NAMES))
+                .disableCreateOnMissingCache()
+                .enableStatistics()
+                .build();
+    }
+
+    @Bean
+    RedisMessageListenerContainer cacheInvalidationListenerContainer(final RedisConnectionFactory connectionFactory) {
+        final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    CacheInvalidationBus cacheInvalidationBus(final StringRedisTemplate redisTemplate,
+                                              final RedisMessageListenerContainer cacheInvalidationListenerContainer,
+                                              @Value("${planner.cache.shared.invalidation-channel}") final String channel,
+                                              final ObjectMapper objectMapper) {
+        return new RedisCacheInvalidationBus(redisTemplate, cacheInvalidationListenerContainer, channel, objectMapper);
+    }
+
+    /**
+     * Keeps the near tier's {@code cache.*} metrics; the shared tier reports its own through Redis statistics.
+     */
+    @Bean
+    CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        final CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+        return (cache, tags) -> cache.getNearCache() instanceof CaffeineCache near
+                ? caffeine.getMeterBinder(near, tags)
+                : null;
+    }
+}
@@ -0,0 +1,73 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Logs statements slower than the threshold to {@code planner.sql.slow}, together with the repository
+ * method that issued them, and a random sample of the remaining statements to {@code planner.sql.sampled}.
+ * Bind values are never logged.
+ */
+class SqlLoggingListener implements QueryExecutionListener {
+
+    static final String SLOW_LOGGER_NAME = "planner.sql.slow";
+    static final String SAMPLED_LOGGER_NAME = "planner.sql.sampled";
+
+    private static final Logger SLOW_LOG = LoggerFactory.getLogger(SLOW_LOGGER_NAME);
+    private static final Logger SAMPLED_LOG = LoggerFactory.getLogger(SAMPLED_LOGGER_NAME);
+    private static final String UNKNOWN_METHOD = "<no repository method>";
+
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+
+    SqlLoggingListener(final Duration slowThreshold, final double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("SQL sample rate must be between 0 and 1");
+        }
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+        final long elapsed = execInfo.getElapsedTime();
+        if (elapsed >= slowThresholdMillis) {
+            if (SLOW_LOG.isWarnEnabled()) {
+                SLOW_LOG.warn("Slow SQL took {} ms in {} (batch size {}): {}",
+                        elapsed, repositoryMethod(), batchSize(execInfo), sql(queryInfoList));
+            }
+            return;
+        }
+        if (sampleRate > 0 && SAMPLED_LOG.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            SAMPLED_LOG.info("SQL took {} ms in {} (batch size {}): {}",
+                    elapsed, repositoryMethod(), batchSize(execInfo), sql(queryInfoList));
+        }
+    }
+
+    private static String repositoryMethod() {
+        final String method = RepositoryMethodTracker.currentMethod();
+        return method == null ? UNKNOWN_METHOD : method;
+    }
+
+    private static int batchSize(final ExecutionInfo execInfo) {
+        return execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+    }
+
+    private static String sql(final List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+    }
+}
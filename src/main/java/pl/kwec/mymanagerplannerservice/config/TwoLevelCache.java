@@ -0,0 +1,144 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A per-instance near cache in front of a cache shared by all instances. Reads fall through to the shared
+ * tier and fill the near cache; writes and evictions go to both, and evictions are broadcast so other
+ * instances drop their near copy. Keys are stored as strings in both tiers. A failing shared tier is
+ * logged and skipped, leaving the near cache alone.
+ * <p>
+ * Puts are unconditional, so a load that read old data (from a lagging replica, or racing another node's
+ * commit and eviction) would overwrite a fresh eviction in both tiers. Callers therefore key entries by the
+ * version of the data they were loaded from, so an entry is never rewritten and evictions are not needed
+ * for correctness.
+ */
+@Slf4j
+class TwoLevelCache implements Cache {
+
+    private final Cache near;
+    private final Cache shared;
+    private final CacheInvalidationBus invalidationBus;
+
+    TwoLevelCache(final Cache near, final Cache shared, final CacheInvalidationBus invalidationBus) {
+        this.near = near;
+        this.shared = shared;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return near.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return near.getNativeCache();
+    }
+
+    Cache getNearCache() {
+        return near;
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        final String cacheKey = cacheKey(key);
+        final ValueWrapper cached = near.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        final ValueWrapper sharedValue = getShared(cacheKey);
+        if (sharedValue != null && sharedValue.get() != null) {
+            near.put(cacheKey, sharedValue.get());
+        }
+        return sharedValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Class<T> type) {
+        final ValueWrapper wrapper = get(key);
+        final Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        final T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        final String cacheKey = cacheKey(key);
+        try {
+            shared.put(cacheKey, value);
+        } catch (RuntimeException e) {
+            log.warn("Shared cache {} is unavailable, caching {} on this instance only", getName(), cacheKey, e);
+        }
+        near.put(cacheKey, value);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        final String cacheKey = cacheKey(key);
+        near.evict(cacheKey);
+        try {
+            shared.evict(cacheKey);
+            invalidationBus.publish(getName(), cacheKey);
+        } catch (RuntimeException e) {
+            log.warn("Shared cache {} is unavailable, other instances keep {} until it expires", getName(), cacheKey, e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        near.clear();
+        try {
+            shared.clear();
+            invalidationBus.publish(getName(), null);
+        } catch (RuntimeException e) {
+            log.warn("Shared cache {} is unavailable, other instances keep their entries until they expire", getName(), e);
+        }
+    }
+
+    void onInvalidation(final String key) {
+        if (key == null) {
+            near.clear();
+        } else {
+            near.evict(key);
+        }
+    }
+
+    private ValueWrapper getShared(final String cacheKey) {
+        try {
+            final ValueWrapper value = shared.get(cacheKey);
+            return value == null ? null : new SimpleValueWrapper(value.get());
+        } catch (RuntimeException e) {
+            log.warn("Shared cache {} is unavailable, reading {} from the source", getName(), cacheKey, e);
+            return null;
+        }
+    }
+
+    private static String cacheKey(final Object key) {
+        return String.valueOf(key);
+    }
+}
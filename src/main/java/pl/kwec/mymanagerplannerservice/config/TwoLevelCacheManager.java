@@ -0,0 +1,53 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Combines the caches of a per-instance {@code near} manager with the same-named caches of a {@code shared}
+ * manager into {@link TwoLevelCache}s, and applies invalidations broadcast by other instances.
+ */
+class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager near;
+    private final CacheManager shared;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    TwoLevelCacheManager(final CacheManager near, final CacheManager shared, final CacheInvalidationBus invalidationBus) {
+        this.near = near;
+        this.shared = shared;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return near.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(final String name) {
+        final Cache nearCache = near.getCache(name);
+        final Cache sharedCache = shared.getCache(name);
+        if (nearCache == null || sharedCache == null) {
+            return null;
+        }
+        return new TwoLevelCache(nearCache, sharedCache, invalidationBus);
+    }
+
+    private void onInvalidation(final String cacheName, final String key) {
+        final TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.onInvalidation(key);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true}. Tomcat then runs every request on its own
+ * virtual thread, and the Hikari pool is fronted by a {@link ConnectionLimitingDataSource}.
+ * <p>
+ * The pool's {@code connectionTimeout} stays the total time a borrower may wait: most of it goes to the
+ * limiter, where borrowers queue, and the pool keeps {@link #POOL_TIMEOUT_SHARE} of it (at least Hikari's
+ * 250ms minimum) for a permit holder waiting on a connection being created or validated.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    private static final double POOL_TIMEOUT_SHARE = 0.25;
+    private static final long MIN_POOL_TIMEOUT_MILLIS = 250;
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new ConnectionLimitingDataSourcePostProcessor();
+    }
+
+    @Bean
+    MeterBinder connectionLimiterMetrics(final DataSource dataSource) {
+        return registry -> {
+            final ConnectionLimitingDataSource limiter = unwrapLimiter(dataSource);
+            if (limiter == null) {
+                return;
+            }
+            Gauge.builder("planner.datasource.limiter.waiting", limiter, ConnectionLimitingDataSource::getWaitingThreads)
+                    .description("Threads waiting for a connection permit")
+                    .register(registry);
+            Gauge.builder("planner.datasource.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Connection permits currently available")
+                    .register(registry);
+        };
+    }
+
+    private static final class ConnectionLimitingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                final long budget = hikari.getConnectionTimeout();
+                final long poolTimeout = Math.min(budget,
+                        Math.max(MIN_POOL_TIMEOUT_MILLIS, (long) (budget * POOL_TIMEOUT_SHARE)));
+                hikari.setConnectionTimeout(poolTimeout);
+                log.info("Limiting '{}' to {} concurrent borrowers for virtual-thread request handling, "
+                                + "waiting up to {}ms for a permit and {}ms for a connection",
+                        beanName, hikari.getMaximumPoolSize(), budget - poolTimeout, poolTimeout);
+                return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                        Duration.ofMillis(budget - poolTimeout));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    private static ConnectionLimitingDataSource unwrapLimiter(final DataSource dataSource) {
+        if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+            return limiter;
+        }
+        try {
+            return dataSource.isWrapperFor(ConnectionLimitingDataSource.class)
+                    ? dataSource.unwrap(ConnectionLimitingDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package pl.kwec.mymanagerplannerservice.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements each request executes on its own thread and warns when the count
+ * exceeds {@code planner.query-budget.max-statements}. Work handed to async threads, such as
+ * streamed exports, is not attributed to the request.
+ */
+@Component
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final int maxStatements;
+    private final DistributionSummary statementsPerRequest;
+
+    public QueryBudgetFilter(@Value("${planner.query-budget.max-statements}") final int maxStatements,
+                             final MeterRegistry meterRegistry) {
+        this.maxStatements = maxStatements;
+        this.statementsPerRequest = DistributionSummary.builder("planner.http.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain)
+            throws ServletException, IOException {
+
+        QueryCountHolder.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            final QueryCount count = QueryCountHolder.getGrandTotal();
+            QueryCountHolder.clear();
+            final long total = count.getTotal();
+            statementsPerRequest.record(total);
+            if (total > maxStatements) {
+                log.warn("Request {} {} executed {} SQL statements, budget is {} (select={}, insert={}, update={}, delete={}, other={})",
+                        request.getMethod(), request.getRequestURI(), total, maxStatements,
+                        count.getSelect(), count.getInsert(), count.getUpdate(), count.getDelete(), count.getOther());
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package pl.kwec.mymanagerplannerservice.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,11 +10,23 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class UserIdAuthFilter extends OncePerRequestFilter {
 
     public static final String USER_ID_ATTRIBUTE = "userId";
+    private static final String FILTER_METRIC = "planner.auth.filter";
+
+    private final Timer authenticatedTimer;
+    private final Timer anonymousTimer;
+    private final Timer rejectedTimer;
+
+    public UserIdAuthFilter(final MeterRegistry meterRegistry) {
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.anonymousTimer = filterTimer(meterRegistry, "anonymous");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+    }
 
     @Override
     protected void doFilterInternal(final HttpServletRequest request,
@@ -20,6 +34,7 @@ public class UserIdAuthFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
 
+        final long start = System.nanoTime();
         final String userIdHeader = request.getHeader("X-User-Id");
         if (userIdHeader != null) {
             try {
@@ -27,10 +42,21 @@ public class UserIdAuthFilter extends OncePerRequestFilter {
                 request.setAttribute(USER_ID_ATTRIBUTE, userId);
             } catch (NumberFormatException e) {
                 response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 return;
             }
+            authenticatedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            anonymousTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static Timer filterTimer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder(FILTER_METRIC)
+                .description("Time spent resolving the X-User-Id header, excluding the rest of the chain")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
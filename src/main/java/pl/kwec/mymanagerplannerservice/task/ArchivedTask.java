@@ -0,0 +1,51 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task moved out of {@code tasks} by {@link TaskArchiver}. Rows are written by the archiver's SQL
+ * and only read through {@link TaskRepository}.
+ */
+@Entity
+@Table(name = "tasks_archive")
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private boolean completed;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private Task.Priority priority;
+
+    private LocalDateTime dueDate;
+
+    private String category;
+
+    @Column(name = "is_deleted")
+    private boolean deleted;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime deletedAt;
+
+    private LocalDateTime archivedAt;
+}
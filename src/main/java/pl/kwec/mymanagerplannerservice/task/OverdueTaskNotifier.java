@@ -0,0 +1,70 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes {@link TaskOverdueEvent}s to the server-sent event streams opened by the task owner on this node.
+ * <p>
+ * Events arrive on the overdue scheduler thread, so they are only queued here, on an {@link SseSubscriber} per
+ * stream that is disconnected once it falls more than {@code planner.overdue.max-backlog} events behind.
+ */
+@Component
+public class OverdueTaskNotifier {
+
+    static final String OVERDUE_EVENT_NAME = "task-overdue";
+
+    private final int maxBacklog;
+    private final Map<Long, Set<SseSubscriber>> subscribersByUserId = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("overdue-notifier-", 0).factory());
+
+    public OverdueTaskNotifier(@Value("${planner.overdue.max-backlog}") final int maxBacklog) {
+        this.maxBacklog = maxBacklog;
+    }
+
+    public SseEmitter subscribe(final Long userId) {
+        final SseEmitter emitter = new SseEmitter();
+        final SseSubscriber subscriber = new SseSubscriber("overdue", userId, emitter, maxBacklog, deliveryExecutor,
+                closed -> unsubscribe(userId, closed));
+        subscribersByUserId.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return emitter;
+    }
+
+    @EventListener
+    public void onTaskOverdue(final TaskOverdueEvent event) {
+        final Set<SseSubscriber> subscribers = subscribersByUserId.get(event.userId());
+        if (subscribers == null) {
+            return;
+        }
+        final Set<DataWithMediaType> overdueEvent = SseEmitter.event()
+                .name(OVERDUE_EVENT_NAME)
+                .id(String.valueOf(event.taskId()))
+                .data(event)
+                .build();
+        subscribers.forEach(subscriber -> subscriber.enqueue(overdueEvent));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribersByUserId.values().forEach(subscribers -> subscribers.forEach(SseSubscriber::complete));
+        deliveryExecutor.shutdownNow();
+    }
+
+    private void unsubscribe(final Long userId, final SseSubscriber subscriber) {
+        subscribersByUserId.computeIfPresent(userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the deadlines of open tasks due within {@code planner.overdue.horizon} in a priority queue and
+ * publishes a {@link TaskOverdueEvent} when each one passes. The window is extended incrementally by
+ * {@link #loadUpcomingDeadlines()}; due dates set inside the loaded window arrive as
+ * {@link TaskDueDateChangedEvent}s. Every due task is re-checked against the database before its event
+ * is published, so tasks completed, deleted or rescheduled in the meantime are dropped.
+ */
+@Component
+@Slf4j
+public class OverdueTaskScheduler {
+
+    private static final int VERIFY_CHUNK_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration horizon;
+    private final ScheduledExecutorService executor;
+
+    private final PriorityQueue<TaskDeadline> deadlines = new PriorityQueue<>(Comparator.comparing(TaskDeadline::dueDate));
+    private final Map<Long, LocalDateTime> scheduledDueDates = new HashMap<>();
+    private LocalDateTime loadedUntil;
+    private ScheduledFuture<?> nextFiring;
+    private LocalDateTime nextFiringAt;
+
+    public OverdueTaskScheduler(final TaskRepository taskRepository,
+                                final ApplicationEventPublisher eventPublisher,
+                                @Value("${planner.overdue.horizon}") final Duration horizon) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.horizon = horizon;
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("overdue-task-scheduler").daemon().factory());
+        this.loadedUntil = LocalDateTime.now();
+    }
+
+    @Scheduled(fixedDelayString = "${planner.overdue.refresh-interval}")
+    public void loadUpcomingDeadlines() {
+        final LocalDateTime from;
+        final LocalDateTime to = LocalDateTime.now().plus(horizon);
+        synchronized (this) {
+            if (!to.isAfter(loadedUntil)) {
+                return;
+            }
+            from = loadedUntil;
+            // Advanced before querying, so due dates committed while the query runs are taken from events.
+            loadedUntil = to;
+        }
+        final List<TaskDeadline> upcoming = taskRepository.findUpcomingDeadlines(from, to);
+        synchronized (this) {
+            upcoming.forEach(this::enqueue);
+            scheduleNextFiring();
+        }
+        log.debug("Loaded {} task deadlines due until {}", upcoming.size(), to);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDueDateChanged(final TaskDueDateChangedEvent event) {
+        if (event.dueDate() == null || event.dueDate().isAfter(loadedUntil)) {
+            scheduledDueDates.remove(event.taskId());
+            return;
+        }
+        enqueue(new TaskDeadline(event.taskId(), event.userId(), event.dueDate()));
+        scheduleNextFiring();
+    }
+
+    synchronized int getScheduledCount() {
+        return scheduledDueDates.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void enqueue(final TaskDeadline deadline) {
+        if (!deadline.dueDate().equals(scheduledDueDates.put(deadline.taskId(), deadline.dueDate()))) {
+            deadlines.add(deadline);
+        }
+    }
+
+    private void scheduleNextFiring() {
+        final TaskDeadline head = deadlines.peek();
+        if (head == null) {
+            return;
+        }
+        if (nextFiring != null && !nextFiring.isDone() && !head.dueDate().isBefore(nextFiringAt)) {
+            return;
+        }
+        if (nextFiring != null) {
+            nextFiring.cancel(false);
+        }
+        final long delay = Math.max(0, Duration.between(LocalDateTime.now(), head.dueDate()).toMillis());
+        nextFiring = executor.schedule(this::fireDueDeadlines, delay, TimeUnit.MILLISECONDS);
+        nextFiringAt = head.dueDate();
+    }
+
+    private void fireDueDeadlines() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<TaskDeadline> due = new ArrayList<>();
+        synchronized (this) {
+            while (!deadlines.isEmpty() && !deadlines.peek().dueDate().isAfter(now)) {
+                final TaskDeadline deadline = deadlines.poll();
+                // Entries replaced by a later due date change are stale and skipped.
+                if (deadline.dueDate().equals(scheduledDueDates.get(deadline.taskId()))) {
+                    scheduledDueDates.remove(deadline.taskId());
+                    due.add(deadline);
+                }
+            }
+            nextFiring = null;
+            scheduleNextFiring();
+        }
+
+        for (int start = 0; start < due.size(); start += VERIFY_CHUNK_SIZE) {
+            final List<TaskDeadline> chunk = due.subList(start, Math.min(start + VERIFY_CHUNK_SIZE, due.size()));
+            final List<Long> ids = chunk.stream()
+                    .map(TaskDeadline::taskId)
+                    .toList();
+            // The owners only narrow the re-check to their partitions; ids still select the tasks.
+            final Set<Long> userIds = chunk.stream()
+                    .map(TaskDeadline::userId)
+                    .collect(Collectors.toSet());
+            try {
+                taskRepository.findOverdueDeadlines(userIds, ids, now).forEach(deadline -> eventPublisher.publishEvent(
+                        new TaskOverdueEvent(deadline.taskId(), deadline.userId(), deadline.dueDate())));
+            } catch (RuntimeException e) {
+                log.warn("Could not publish overdue events for {} tasks", ids.size(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One open server-sent event stream. Events are queued and sent from the delivery executor, so a slow client
+ * neither blocks the publisher nor delays other streams, and a stream more than {@code maxBacklog} events behind
+ * is disconnected. {@code onClose} runs once, whether the client went away, the stream failed or fell behind.
+ */
+@Slf4j
+final class SseSubscriber {
+
+    private final String streamName;
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final int maxBacklog;
+    private final Executor deliveryExecutor;
+    private final Consumer<SseSubscriber> onClose;
+    private final Queue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SseSubscriber(final String streamName,
+                  final Long userId,
+                  final SseEmitter emitter,
+                  final int maxBacklog,
+                  final Executor deliveryExecutor,
+                  final Consumer<SseSubscriber> onClose) {
+        this.streamName = streamName;
+        this.userId = userId;
+        this.emitter = emitter;
+        this.maxBacklog = maxBacklog;
+        this.deliveryExecutor = deliveryExecutor;
+        this.onClose = onClose;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(error -> close());
+    }
+
+    /**
+     * An overflowing subscriber closes itself, which may remove it from the caller's collection, so callers
+     * iterate over a copy or a concurrent set. The emitter is completed on the delivery executor because
+     * completion waits for a send that a stalled client may still be blocking.
+     */
+    void enqueue(final Set<DataWithMediaType> event) {
+        if (closed.get()) {
+            return;
+        }
+        if (backlog.incrementAndGet() > maxBacklog) {
+            log.debug("Disconnecting a {} stream of user {} that fell behind", streamName, userId);
+            close();
+            deliveryExecutor.execute(emitter::complete);
+            return;
+        }
+        queue.add(event);
+        if (draining.compareAndSet(false, true)) {
+            deliveryExecutor.execute(this::drain);
+        }
+    }
+
+    void complete() {
+        emitter.complete();
+    }
+
+    private void drain() {
+        do {
+            Set<DataWithMediaType> event;
+            while ((event = queue.poll()) != null) {
+                backlog.decrementAndGet();
+                if (closed.get()) {
+                    continue;
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping a {} stream of user {}", streamName, userId, e);
+                    close();
+                }
+            }
+            draining.set(false);
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private void close() {
+        if (closed.compareAndSet(false, true)) {
+            onClose.accept(this);
+        }
+    }
+}
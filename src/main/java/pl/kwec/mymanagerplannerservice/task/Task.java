@@ -3,6 +3,7 @@ package pl.kwec.mymanagerplannerservice.task;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -10,11 +11,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_priority", columnList = "priority"),
-        @Index(name = "idx_is_deleted", columnList = "is_deleted")
-})
+@Table(name = "tasks")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,7 +20,8 @@ import java.time.LocalDateTime;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Task title cannot be empty")
@@ -34,6 +32,7 @@ public class Task {
     @Builder.Default
     private boolean completed = false;
 
+    @PartitionKey
     @Column(nullable = false)
     private Long userId;
 
@@ -56,7 +55,6 @@ public class Task {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
-    @Transient
     private LocalDateTime deletedAt;
 
     public enum Priority {
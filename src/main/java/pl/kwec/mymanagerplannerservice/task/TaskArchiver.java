@@ -0,0 +1,88 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the hot tasks table small: moves tasks soft-deleted longer than {@code planner.archive.deleted-after}
+ * and completed tasks untouched for {@code planner.archive.completed-after} into tasks_archive. Each batch
+ * is its own short transaction and a run stops after {@code planner.archive.max-batches}, so a large backlog
+ * is worked off over several runs without long locks.
+ * <p>
+ * Archived completed tasks still count towards the user's statistics (see V10) and reach sync clients as
+ * {@code archived} rather than {@code deleted}.
+ */
+@Component
+@ConditionalOnProperty(name = "planner.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TaskArchiver {
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final Duration deletedRetention;
+    private final Duration completedRetention;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public TaskArchiver(final TaskRepository taskRepository,
+                        final ApplicationEventPublisher eventPublisher,
+                        final TransactionOperations transactionOperations,
+                        @Value("${planner.archive.deleted-after}") final Duration deletedRetention,
+                        @Value("${planner.archive.completed-after}") final Duration completedRetention,
+                        @Value("${planner.archive.batch-size}") final int batchSize,
+                        @Value("${planner.archive.max-batches}") final int maxBatches) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionOperations = transactionOperations;
+        this.deletedRetention = deletedRetention;
+        this.completedRetention = completedRetention;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${planner.archive.interval}", initialDelayString = "${planner.archive.interval}")
+    public int archive() {
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            final Integer moved = transactionOperations.execute(status -> archiveBatch());
+            // A batch moves up to batchSize rows of each kind and skips locked ones, so only an empty batch
+            // shows that nothing is left.
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+        }
+        if (archived > 0) {
+            log.info("Archived {} tasks", archived);
+        } else {
+            log.debug("No tasks to archive");
+        }
+        return archived;
+    }
+
+    /**
+     * Reads the clock per batch: archived_at positions the row for sync, so it must be close to the commit or a
+     * token issued while a long run is still going would already be past the later batches.
+     */
+    private int archiveBatch() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Long> owners = taskRepository.archiveTasks(now.minus(deletedRetention), now.minus(completedRetention),
+                now, batchSize);
+        owners.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .forEach((userId, count) -> eventPublisher.publishEvent(new TasksArchivedEvent(userId, count.intValue())));
+        return owners.size();
+    }
+}
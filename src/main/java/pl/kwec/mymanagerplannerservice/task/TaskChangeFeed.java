@@ -0,0 +1,228 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskChangeResponse;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user server-sent event stream of committed {@link TaskChangedEvent}s.
+ * <p>
+ * Event ids are {@code <node epoch>-<sequence>}. While a user has a stream open, and for
+ * {@code planner.task-feed.retention} after the last one closes, the latest
+ * {@code planner.task-feed.replay-size} changes are kept, so a reconnect with {@code Last-Event-ID}
+ * receives what it missed. When that is not possible (another node, a restart, evicted changes) the
+ * client gets a {@code reset} event and should reload.
+ * <p>
+ * Each change is serialized once and handed to an {@link SseSubscriber} per stream, which is disconnected
+ * once its backlog exceeds {@code planner.task-feed.max-backlog}.
+ */
+@Component
+@Slf4j
+public class TaskChangeFeed {
+
+    static final String CHANGE_EVENT_NAME = "task-change";
+    static final String RESET_EVENT_NAME = "reset";
+    static final String SUBSCRIBED_EVENT_NAME = "subscribed";
+
+    private final ObjectMapper objectMapper;
+    private final int replaySize;
+    private final int maxBacklog;
+    private final long retentionMillis;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, UserFeed> feeds = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService deliveryExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-feed-", 0).factory());
+
+    public TaskChangeFeed(final ObjectMapper objectMapper,
+                          final MeterRegistry meterRegistry,
+                          @Value("${planner.task-feed.replay-size}") final int replaySize,
+                          @Value("${planner.task-feed.max-backlog}") final int maxBacklog,
+                          @Value("${planner.task-feed.retention}") final Duration retention) {
+        this.objectMapper = objectMapper;
+        this.replaySize = replaySize;
+        this.maxBacklog = maxBacklog;
+        this.retentionMillis = retention.toMillis();
+        Gauge.builder("planner.task.feed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open task change streams on this node")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(final Long userId, final String lastEventId) {
+        final SseEmitter emitter = new SseEmitter();
+        final SseSubscriber subscriber = new SseSubscriber("task change", userId, emitter, maxBacklog, deliveryExecutor,
+                closed -> unsubscribe(userId, closed));
+        feeds.compute(userId, (id, feed) -> {
+            final UserFeed userFeed = feed == null ? new UserFeed(sequence.get()) : feed;
+            userFeed.subscribe(subscriber, lastEventId);
+            return userFeed;
+        });
+        subscriberCount.incrementAndGet();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(final TaskChangedEvent event) {
+        final UserFeed feed = feeds.get(event.userId());
+        if (feed == null) {
+            return;
+        }
+        final String payload;
+        try {
+            payload = objectMapper.writeValueAsString(TaskChangeResponse.builder()
+                    .type(event.type())
+                    .taskId(event.taskId())
+                    .task(event.task())
+                    .build());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize task change. Task ID: {}, User ID: {}", event.taskId(), event.userId(), e);
+            return;
+        }
+        feed.publish(payload);
+    }
+
+    @Scheduled(fixedDelayString = "${planner.task-feed.heartbeat-interval}")
+    public void sendHeartbeats() {
+        final long now = System.currentTimeMillis();
+        final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        feeds.forEach((userId, feed) -> feed.heartbeat(heartbeat));
+        feeds.keySet().forEach(userId -> feeds.computeIfPresent(userId,
+                (id, feed) -> feed.isExpired(now) ? null : feed));
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        feeds.values().forEach(UserFeed::completeAll);
+        deliveryExecutor.shutdownNow();
+    }
+
+    private void unsubscribe(final Long userId, final SseSubscriber subscriber) {
+        subscriberCount.decrementAndGet();
+        final UserFeed feed = feeds.get(userId);
+        if (feed != null) {
+            feed.unsubscribe(subscriber);
+        }
+    }
+
+    private String eventId(final long eventSequence) {
+        return epoch + "-" + eventSequence;
+    }
+
+    /**
+     * Returns the sequence encoded in an event id issued by this node, or -1 when the id is missing,
+     * malformed or was issued by another node or an earlier run.
+     */
+    private long parseSequence(final String lastEventId) {
+        if (lastEventId == null) {
+            return -1;
+        }
+        final int separatorIndex = lastEventId.lastIndexOf('-');
+        if (separatorIndex < 0 || !epoch.equals(lastEventId.substring(0, separatorIndex))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separatorIndex + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Set<DataWithMediaType> changeEvent(final long eventSequence, final String payload) {
+        return SseEmitter.event()
+                .name(CHANGE_EVENT_NAME)
+                .id(eventId(eventSequence))
+                .data(payload, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private record Change(long sequence, String payload) {
+    }
+
+    private final class UserFeed {
+
+        private final ArrayDeque<Change> replay = new ArrayDeque<>();
+        private final Set<SseSubscriber> subscribers = new HashSet<>();
+        /**
+         * Changes up to this sequence are no longer replayable.
+         */
+        private long replayableAfter;
+        private long idleSince;
+
+        private UserFeed(final long replayableAfter) {
+            this.replayableAfter = replayableAfter;
+        }
+
+        private synchronized void subscribe(final SseSubscriber subscriber, final String lastEventId) {
+            subscribers.add(subscriber);
+            if (lastEventId != null) {
+                final long lastSequence = parseSequence(lastEventId);
+                if (lastSequence < replayableAfter) {
+                    subscriber.enqueue(SseEmitter.event().name(RESET_EVENT_NAME).id(eventId(sequence.get())).data("").build());
+                    return;
+                }
+                replay.stream()
+                        .filter(change -> change.sequence() > lastSequence)
+                        .forEach(change -> subscriber.enqueue(changeEvent(change.sequence(), change.payload())));
+            }
+            subscriber.enqueue(SseEmitter.event().name(SUBSCRIBED_EVENT_NAME).id(eventId(sequence.get())).data("").build());
+        }
+
+        private synchronized void publish(final String payload) {
+            final long eventSequence = sequence.incrementAndGet();
+            replay.addLast(new Change(eventSequence, payload));
+            if (replay.size() > replaySize) {
+                replayableAfter = replay.removeFirst().sequence();
+            }
+            if (!subscribers.isEmpty()) {
+                final Set<DataWithMediaType> event = changeEvent(eventSequence, payload);
+                List.copyOf(subscribers).forEach(subscriber -> subscriber.enqueue(event));
+            }
+        }
+
+        private synchronized void heartbeat(final Set<DataWithMediaType> heartbeat) {
+            List.copyOf(subscribers).forEach(subscriber -> subscriber.enqueue(heartbeat));
+        }
+
+        private synchronized void unsubscribe(final SseSubscriber subscriber) {
+            if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+                idleSince = System.currentTimeMillis();
+            }
+        }
+
+        private synchronized boolean isExpired(final long now) {
+            return subscribers.isEmpty() && now - idleSince >= retentionMillis;
+        }
+
+        private synchronized void completeAll() {
+            List.copyOf(subscribers).forEach(SseSubscriber::complete);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    COMPLETED,
+    REOPENED,
+    DELETED,
+    /**
+     * A filter-based bulk update or delete touched tasks that are not listed individually; clients reload.
+     */
+    BULK_CHANGED
+}
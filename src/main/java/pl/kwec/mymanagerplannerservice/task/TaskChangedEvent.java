@@ -0,0 +1,10 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+/**
+ * Published by {@link TaskService} for every mutation. {@code task} carries the new state when the
+ * service has it at hand; {@code taskId} is null for {@link TaskChangeType#BULK_CHANGED}.
+ */
+public record TaskChangedEvent(Long userId, TaskChangeType type, Long taskId, TaskResponse task) {
+}
@@ -1,5 +1,9 @@
 package pl.kwec.mymanagerplannerservice.task;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -7,16 +11,30 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pl.kwec.mymanagerplannerservice.filter.UserIdAuthFilter;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchUpdateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBulkOperationResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskCreateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskCursorPageResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskStatisticsResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskSyncResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskUpdateRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.BiFunction;
 
 @RestController
 @RequestMapping("/tasks")
@@ -24,7 +42,12 @@ import java.util.List;
 @Slf4j
 public class TaskController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+    private final OverdueTaskNotifier overdueTaskNotifier;
+    private final TaskChangeFeed taskChangeFeed;
 
     private Long getUserIdFromRequest(final HttpServletRequest request) {
         final Object userIdAttr = request.getAttribute(UserIdAuthFilter.USER_ID_ATTRIBUTE);
@@ -37,34 +60,95 @@ public class TaskController {
     @GetMapping
     public ResponseEntity<Page<TaskResponse>> getTasks(
             final HttpServletRequest request,
+            final WebRequest webRequest,
             @RequestParam(defaultValue = "0") final int page,
             @RequestParam(defaultValue = "20") final int size) {
         final Long userId = getUserIdFromRequest(request);
         final Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(taskService.getUserTasks(userId, pageable));
+        return respondIfModified(webRequest, userId, (eTag, ok) -> ok.body(taskService.getUserTasks(userId, pageable)));
+    }
+
+    @GetMapping("/archived")
+    public ResponseEntity<Page<TaskResponse>> getArchivedTasks(
+            final HttpServletRequest request,
+            @RequestParam(defaultValue = "0") final int page,
+            @RequestParam(defaultValue = "20") final int size) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.getArchivedTasks(userId, PageRequest.of(page, size)));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<TaskCursorPageResponse> scrollTasks(
+            final HttpServletRequest request,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "20") final int size) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.scrollUserTasks(userId, cursor, size));
+    }
+
+    @GetMapping("/sync")
+    public ResponseEntity<TaskSyncResponse> syncTasks(
+            final HttpServletRequest request,
+            @RequestParam(required = false) final String since,
+            @RequestParam(defaultValue = "500") final int size) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.syncTasks(userId, since, size));
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllTasks(final HttpServletRequest request,
+                                                             final WebRequest webRequest) {
+        final Long userId = getUserIdFromRequest(request);
+        return respondIfModified(webRequest, userId, (eTag, ok) -> ok
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> writeTasks(userId, streamingWriter().writeValuesAsArray(outputStream))));
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<List<TaskResponse>> getAllTasks(final HttpServletRequest request) {
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(final HttpServletRequest request) {
         final Long userId = getUserIdFromRequest(request);
-        return ResponseEntity.ok(taskService.getUserTasks(userId));
+        taskService.validateUserIdOrThrow(userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> writeTasks(userId, streamingWriter().withRootValueSeparator("\n").writeValues(outputStream)));
     }
 
     @GetMapping("/statistics")
-    public ResponseEntity<TaskStatisticsResponse> getTaskStatistics(final HttpServletRequest request) {
+    public ResponseEntity<TaskStatisticsResponse> getTaskStatistics(final HttpServletRequest request,
+                                                                    final WebRequest webRequest) {
         final Long userId = getUserIdFromRequest(request);
-        return ResponseEntity.ok(taskService.getTaskStatistics(userId));
+        return respondIfModified(webRequest, userId,
+                (eTag, ok) -> ok.body(taskService.getTaskStatistics(userId, eTag)));
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<TaskResponse>> getOverdueTasks(final HttpServletRequest request) {
+    public ResponseEntity<List<TaskResponse>> getOverdueTasks(final HttpServletRequest request,
+                                                              final WebRequest webRequest) {
         final Long userId = getUserIdFromRequest(request);
-        return ResponseEntity.ok(taskService.getOverdueTasks(userId));
+        return respondIfModified(webRequest, userId,
+                (eTag, ok) -> ok.body(taskService.getOverdueTasks(userId, eTag)));
+    }
+
+    @GetMapping(value = "/overdue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOverdueTasks(final HttpServletRequest request) {
+        final Long userId = getUserIdFromRequest(request);
+        taskService.validateUserIdOrThrow(userId);
+        return overdueTaskNotifier.subscribe(userId);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskChanges(
+            final HttpServletRequest request,
+            @RequestHeader(value = "Last-Event-ID", required = false) final String lastEventId) {
+        final Long userId = getUserIdFromRequest(request);
+        taskService.validateUserIdOrThrow(userId);
+        return taskChangeFeed.subscribe(userId, lastEventId);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Page<TaskResponse>> searchTasks(
             final HttpServletRequest request,
+            @RequestParam(required = false) final String query,
             @RequestParam(required = false) final String title,
             @RequestParam(required = false) final Task.Priority priority,
             @RequestParam(required = false) final Boolean completed,
@@ -73,7 +157,21 @@ public class TaskController {
             @RequestParam(defaultValue = "20") final int size) {
         final Long userId = getUserIdFromRequest(request);
         final Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(taskService.searchTasks(userId, title, priority, completed, category, pageable));
+        return ResponseEntity.ok(taskService.searchTasks(userId, query, title, priority, completed, category, pageable));
+    }
+
+    @GetMapping("/search/scroll")
+    public ResponseEntity<TaskCursorPageResponse> scrollSearchTasks(
+            final HttpServletRequest request,
+            @RequestParam(required = false) final String query,
+            @RequestParam(required = false) final String title,
+            @RequestParam(required = false) final Task.Priority priority,
+            @RequestParam(required = false) final Boolean completed,
+            @RequestParam(required = false) final String category,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "20") final int size) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.scrollSearchTasks(userId, query, title, priority, completed, category, cursor, size));
     }
 
     @PostMapping
@@ -84,6 +182,50 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(requestBody, userId));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResponse> createTasks(
+            final HttpServletRequest request,
+            @RequestBody final List<TaskCreateRequest> requestBody) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.createTasks(requestBody, userId));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<TaskBatchResponse> updateTasks(
+            final HttpServletRequest request,
+            @RequestBody final List<TaskBatchUpdateRequest> requestBody) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.updateTasks(requestBody, userId));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<TaskBatchResponse> deleteTasks(
+            final HttpServletRequest request,
+            @RequestBody final List<Long> ids) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.deleteTasks(ids, userId));
+    }
+
+    @PatchMapping("/completion")
+    public ResponseEntity<TaskBulkOperationResponse> updateCompletionMatching(
+            final HttpServletRequest request,
+            @RequestParam final boolean completed,
+            @RequestParam(required = false) final Task.Priority priority,
+            @RequestParam(required = false) final String category) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.updateCompletionMatching(userId, priority, category, completed));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<TaskBulkOperationResponse> deleteMatching(
+            final HttpServletRequest request,
+            @RequestParam(required = false) final Task.Priority priority,
+            @RequestParam(required = false) final String category,
+            @RequestParam(required = false) final Boolean completed) {
+        final Long userId = getUserIdFromRequest(request);
+        return ResponseEntity.ok(taskService.deleteMatching(userId, priority, category, completed));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
             final HttpServletRequest request,
@@ -93,6 +235,16 @@ public class TaskController {
         return ResponseEntity.ok(taskService.updateTask(id, requestBody, userId));
     }
 
+    @PatchMapping("/{id}/completion")
+    public ResponseEntity<Void> updateTaskCompletion(
+            final HttpServletRequest request,
+            @PathVariable final Long id,
+            @RequestParam final boolean completed) {
+        final Long userId = getUserIdFromRequest(request);
+        taskService.updateTaskCompletion(id, completed, userId);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(
             final HttpServletRequest request,
@@ -101,4 +253,37 @@ public class TaskController {
         taskService.deleteTask(id, userId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Answers {@code If-None-Match} from the user's task version before any payload query runs. The version
+     * is read first, so a write racing with the payload can only make the ETag older than the body, which
+     * costs the client one extra full response, never a stale 304. A body served from a cache must be looked up
+     * by the ETag passed to {@code response}, so it can never be older than that ETag. The ETag is shared by the
+     * JSON and binary encodings of the body, so responses vary by {@code Accept} to keep caches from mixing them up.
+     */
+    private <T> ResponseEntity<T> respondIfModified(final WebRequest webRequest, final Long userId,
+                                                    final BiFunction<String, ResponseEntity.BodyBuilder, ResponseEntity<T>> response) {
+        final String eTag = taskService.getTasksETag(userId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return response.apply(eTag, ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT));
+    }
+
+    private ObjectWriter streamingWriter() {
+        return objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private void writeTasks(final Long userId, final SequenceWriter sequenceWriter) throws IOException {
+        try (sequenceWriter) {
+            taskService.exportUserTasks(userId, task -> {
+                try {
+                    sequenceWriter.write(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
 }
\ No newline at end of file
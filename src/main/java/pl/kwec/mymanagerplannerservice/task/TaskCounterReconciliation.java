@@ -0,0 +1,8 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+public interface TaskCounterReconciliation {
+
+    Integer getRepaired();
+
+    Long getLastUserId();
+}
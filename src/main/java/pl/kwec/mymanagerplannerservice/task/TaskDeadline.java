@@ -0,0 +1,6 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import java.time.LocalDateTime;
+
+public record TaskDeadline(Long taskId, Long userId, LocalDateTime dueDate) {
+}
@@ -0,0 +1,9 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link TaskService} when a task is created or updated with a due date.
+ */
+public record TaskDueDateChangedEvent(Long taskId, Long userId, LocalDateTime dueDate) {
+}
@@ -0,0 +1,9 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link OverdueTaskScheduler} once the due date of an open task has passed.
+ */
+public record TaskOverdueEvent(Long taskId, Long userId, LocalDateTime dueDate) {
+}
@@ -0,0 +1,166 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Moves the rows of an unpartitioned {@code tasks} table into the hash-partitioned table prepared by
+ * migration V8 while the application keeps serving requests: writes are mirrored from the moment the
+ * move starts, existing rows are copied in id ranges of {@code planner.partitioning.batch-size}, each in
+ * its own transaction, the indexes are built and the tables are swapped at the end. Enabled with
+ * {@code planner.partitioning.move-enabled}; a finished or interrupted move can be started again.
+ */
+@Component
+@ConditionalOnProperty(name = "planner.partitioning.move-enabled", havingValue = "true")
+@Slf4j
+public class TaskPartitionMover {
+
+    private static final int SWAP_ATTEMPTS = 5;
+    private static final int PROGRESS_LOG_INTERVAL = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration swapLockTimeout;
+
+    public TaskPartitionMover(final JdbcTemplate jdbcTemplate,
+                              @Value("${planner.partitioning.batch-size}") final int batchSize,
+                              @Value("${planner.partitioning.batch-pause}") final Duration batchPause,
+                              @Value("${planner.partitioning.swap-lock-timeout}") final Duration swapLockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.swapLockTimeout = swapLockTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void moveInBackground() {
+        Thread.ofVirtual().name("task-partition-mover").start(() -> {
+            try {
+                move();
+            } catch (RuntimeException e) {
+                log.error("Moving tasks into the partitioned table failed; restart to resume", e);
+            }
+        });
+    }
+
+    public void move() {
+        if (!isMovePending()) {
+            log.info("Tasks table is already partitioned");
+            return;
+        }
+        startMirroring();
+        copyExistingRows();
+        buildIndexes();
+        swap();
+    }
+
+    boolean isMovePending() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regprocedure('tasks_partitioning_swap()') IS NOT NULL", Boolean.class));
+    }
+
+    void startMirroring() {
+        jdbcTemplate.execute("SELECT tasks_partitioning_start()");
+        log.info("Mirroring task writes into the partitioned table");
+    }
+
+    void copyExistingRows() {
+        final Long minId = jdbcTemplate.queryForObject("SELECT min(id) FROM tasks", Long.class);
+        final Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM tasks", Long.class);
+        if (minId == null) {
+            return;
+        }
+        final long start = System.nanoTime();
+        long copied = 0;
+        long batches = 0;
+        for (long from = minId; from <= maxId; from += batchSize) {
+            final Long batchCopied = jdbcTemplate.queryForObject(
+                    "SELECT tasks_partitioning_copy(?, ?)", Long.class, from, from + batchSize);
+            copied += batchCopied == null ? 0 : batchCopied;
+            if (++batches % PROGRESS_LOG_INTERVAL == 0) {
+                log.info("Copied {} tasks up to id {} of {}", copied, from + batchSize - 1, maxId);
+            }
+            pause();
+        }
+        log.info("Copied {} tasks into the partitioned table in {} s", copied,
+                Duration.ofNanos(System.nanoTime() - start).toSeconds());
+    }
+
+    /**
+     * Builds the secondary indexes after the copy, partition by partition and without blocking the
+     * mirrored writes, then collects planner statistics so the first queries after the swap plan well.
+     */
+    void buildIndexes() {
+        final long start = System.nanoTime();
+        final List<String> statements = jdbcTemplate.queryForList(
+                "SELECT tasks_partitioning_index_statements(true)", String.class);
+        for (final String statement : statements) {
+            jdbcTemplate.execute(statement);
+        }
+        jdbcTemplate.execute("ANALYZE tasks_partitioned");
+        log.info("Built the partitioned table indexes in {} s", Duration.ofNanos(System.nanoTime() - start).toSeconds());
+    }
+
+    /**
+     * The swap takes an exclusive lock on both tables. It gives up after {@code swap-lock-timeout}
+     * instead of queueing every request behind a long-running transaction, and is retried.
+     */
+    void swap() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.execute((ConnectionCallback<Void>) this::swapInTransaction);
+                log.info("Tasks table is partitioned; the previous table is kept as tasks_unpartitioned");
+                return;
+            } catch (DataAccessException e) {
+                if (attempt == SWAP_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Swapping the partitioned tasks table failed, attempt {} of {}", attempt, SWAP_ATTEMPTS, e);
+                pause();
+            }
+        }
+    }
+
+    private Void swapInTransaction(final Connection connection) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL lock_timeout = " + swapLockTimeout.toMillis());
+            statement.execute("SELECT tasks_partitioning_swap()");
+            statement.execute("DROP FUNCTION tasks_partitioning_swap()");
+            connection.commit();
+            return null;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void pause() {
+        if (batchPause.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while moving tasks into the partitioned table", e);
+        }
+    }
+}
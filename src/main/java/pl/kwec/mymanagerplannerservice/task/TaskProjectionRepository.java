@@ -0,0 +1,11 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+public interface TaskProjectionRepository {
+
+    Page<TaskResponse> findResponses(final Specification<Task> spec, final Pageable pageable);
+}
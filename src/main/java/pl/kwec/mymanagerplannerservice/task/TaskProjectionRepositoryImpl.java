@@ -0,0 +1,67 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import java.util.List;
+
+/**
+ * Runs {@link Specification} searches as constructor expressions, so matching rows are read
+ * straight into {@link TaskResponse} without entering the persistence context.
+ */
+class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TaskResponse> findResponses(final Specification<Task> spec, final Pageable pageable) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<TaskResponse> query = criteriaBuilder.createQuery(TaskResponse.class);
+        final Root<Task> root = query.from(Task.class);
+        query.select(criteriaBuilder.construct(TaskResponse.class,
+                root.get("id"), root.get("title"), root.get("description"), root.get("completed"),
+                root.get("priority"), root.get("dueDate"), root.get("category"),
+                root.get("createdAt"), root.get("updatedAt")));
+        applySpecification(spec, root, query, criteriaBuilder);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        final TypedQuery<TaskResponse> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        final List<TaskResponse> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    private long count(final Specification<Task> spec) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        final Root<Task> root = query.from(Task.class);
+        query.select(criteriaBuilder.count(root));
+        applySpecification(spec, root, query, criteriaBuilder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(final Specification<Task> spec, final Root<Task> root,
+                                    final CriteriaQuery<?> query, final CriteriaBuilder criteriaBuilder) {
+        final Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
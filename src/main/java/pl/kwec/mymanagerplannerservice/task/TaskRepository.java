@@ -1,33 +1,204 @@
 package pl.kwec.mymanagerplannerservice.task;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskProjectionRepository {
 
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.deleted = false ORDER BY t.createdAt DESC")
-    Page<Task> findAllByUserId(@Param("userId") final Long userId, final Pageable pageable);
+    String TASK_RESPONSE_SELECT = "SELECT new pl.kwec.mymanagerplannerservice.task.dto.TaskResponse(" +
+            "t.id, t.title, t.description, t.completed, t.priority, t.dueDate, t.category, t.createdAt, t.updatedAt) ";
 
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.deleted = false ORDER BY t.createdAt DESC")
-    List<Task> findAllByUserId(@Param("userId") final Long userId);
+    @Query(value = TASK_RESPONSE_SELECT + "FROM Task t WHERE t.userId = :userId AND t.deleted = false " +
+            "ORDER BY t.createdAt DESC, t.id DESC",
+            countQuery = "SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.deleted = false")
+    Page<TaskResponse> findResponsesByUserId(@Param("userId") final Long userId, final Pageable pageable);
 
-    @Query("SELECT t FROM Task t WHERE t.id = :id AND t.deleted = false")
-    Optional<Task> findByIdAndNotDeleted(@Param("id") final Long id);
+    @Query(TASK_RESPONSE_SELECT + "FROM Task t WHERE t.userId = :userId AND t.deleted = false " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskResponse> findResponsesByUserId(@Param("userId") final Long userId);
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.deleted = false AND t.completed = true")
-    long countCompletedTasks(@Param("userId") final Long userId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(TASK_RESPONSE_SELECT + "FROM Task t WHERE t.userId = :userId AND t.deleted = false " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<TaskResponse> streamAllByUserId(@Param("userId") final Long userId);
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.deleted = false AND t.completed = false")
-    long countPendingTasks(@Param("userId") final Long userId);
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.deleted = false ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findAllByUserId(@Param("userId") final Long userId, final Limit limit);
 
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.deleted = false AND t.dueDate <= :dueDate AND t.completed = false")
-    List<Task> findOverdueTasks(@Param("userId") final Long userId, @Param("dueDate") final LocalDateTime dueDate);
-}
\ No newline at end of file
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.deleted = false " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findAllByUserIdAfter(@Param("userId") final Long userId,
+                                    @Param("createdAt") final LocalDateTime createdAt,
+                                    @Param("id") final Long id,
+                                    final Limit limit);
+
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId " +
+            "AND (t.updatedAt, t.id) > (:updatedAt, :id) " +
+            "ORDER BY t.updatedAt ASC, t.id ASC")
+    List<Task> findChangedSince(@Param("userId") final Long userId,
+                                @Param("updatedAt") final LocalDateTime updatedAt,
+                                @Param("id") final Long id,
+                                final Limit limit);
+
+    @Query(value = "SELECT new pl.kwec.mymanagerplannerservice.task.dto.TaskResponse(" +
+            "a.id, a.title, a.description, a.completed, a.priority, a.dueDate, a.category, a.createdAt, a.updatedAt) " +
+            "FROM ArchivedTask a WHERE a.userId = :userId AND a.deleted = false ORDER BY a.createdAt DESC, a.id DESC",
+            countQuery = "SELECT COUNT(a) FROM ArchivedTask a WHERE a.userId = :userId AND a.deleted = false")
+    Page<TaskResponse> findArchivedResponsesByUserId(@Param("userId") final Long userId, final Pageable pageable);
+
+    @Query("SELECT a FROM ArchivedTask a WHERE a.userId = :userId " +
+            "AND (a.archivedAt, a.id) > (:archivedAt, :id) " +
+            "ORDER BY a.archivedAt ASC, a.id ASC")
+    List<ArchivedTask> findArchivedSince(@Param("userId") final Long userId,
+                                         @Param("archivedAt") final LocalDateTime archivedAt,
+                                         @Param("id") final Long id,
+                                         final Limit limit);
+
+    /**
+     * Moves up to {@code batchSize} tasks soft-deleted before {@code deletedBefore} and up to {@code batchSize}
+     * tasks completed and untouched since {@code completedBefore} into tasks_archive, in one statement.
+     * Rows locked by a running request are skipped until the next batch. Returns the owner of every moved task.
+     */
+    @Query(value = "WITH deleted AS (SELECT user_id, id FROM tasks " +
+            "WHERE is_deleted = true AND deleted_at < :deletedBefore LIMIT :batchSize FOR UPDATE SKIP LOCKED), " +
+            "completed AS (SELECT user_id, id FROM tasks " +
+            "WHERE completed = true AND is_deleted = false AND updated_at < :completedBefore " +
+            "LIMIT :batchSize FOR UPDATE SKIP LOCKED), " +
+            "moved AS (DELETE FROM tasks t USING (SELECT * FROM deleted UNION ALL SELECT * FROM completed) c " +
+            "WHERE t.user_id = c.user_id AND t.id = c.id RETURNING t.*) " +
+            "INSERT INTO tasks_archive SELECT moved.*, :now FROM moved RETURNING user_id", nativeQuery = true)
+    List<Long> archiveTasks(@Param("deletedBefore") final LocalDateTime deletedBefore,
+                            @Param("completedBefore") final LocalDateTime completedBefore,
+                            @Param("now") final LocalDateTime now,
+                            @Param("batchSize") final int batchSize);
+
+    @Query(value = "SELECT coalesce((SELECT version FROM task_versions WHERE user_id = :userId), 0) AS version, " +
+            "(SELECT max(due_date) FROM tasks WHERE user_id = :userId AND NOT is_deleted AND NOT completed " +
+            "AND due_date <= :now) AS lastPassedDueDate", nativeQuery = true)
+    TaskVersion findVersion(@Param("userId") final Long userId, @Param("now") final LocalDateTime now);
+
+    @Query("SELECT t FROM Task t WHERE t.id = :id AND t.userId = :userId")
+    Optional<Task> findByIdAndUserId(@Param("id") final Long id, @Param("userId") final Long userId);
+
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids AND t.userId = :userId")
+    List<Task> findAllByIdInAndUserId(@Param("ids") final Collection<Long> ids, @Param("userId") final Long userId);
+
+    /**
+     * Reads every partition; only for telling a missing task from another user's task once a
+     * user-scoped statement matched nothing.
+     */
+    @Query("SELECT t.userId FROM Task t WHERE t.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") final Long id);
+
+    /**
+     * Reads every partition, see {@link #findOwnerIdById(Long)}.
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") final Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.deleted = true, t.deletedAt = :now, t.updatedAt = :now " +
+            "WHERE t.id = :id AND t.userId = :userId AND t.deleted = false")
+    int softDeleteByIdAndUserId(@Param("id") final Long id,
+                                @Param("userId") final Long userId,
+                                @Param("now") final LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = :completed, t.updatedAt = :now " +
+            "WHERE t.id = :id AND t.userId = :userId AND t.deleted = false")
+    int updateCompletionByIdAndUserId(@Param("id") final Long id,
+                                      @Param("userId") final Long userId,
+                                      @Param("completed") final boolean completed,
+                                      @Param("now") final LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = :completed, t.updatedAt = :now " +
+            "WHERE t.userId = :userId AND t.deleted = false AND t.completed <> :completed " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:category IS NULL OR t.category = :category)")
+    int updateCompletionMatching(@Param("userId") final Long userId,
+                                 @Param("priority") final Task.Priority priority,
+                                 @Param("category") final String category,
+                                 @Param("completed") final boolean completed,
+                                 @Param("now") final LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.deleted = true, t.deletedAt = :now, t.updatedAt = :now " +
+            "WHERE t.userId = :userId AND t.deleted = false " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:category IS NULL OR t.category = :category) " +
+            "AND (:completed IS NULL OR t.completed = :completed)")
+    int softDeleteMatching(@Param("userId") final Long userId,
+                           @Param("priority") final Task.Priority priority,
+                           @Param("category") final String category,
+                           @Param("completed") final Boolean completed,
+                           @Param("now") final LocalDateTime now);
+
+    @Query(value = "SELECT completed AS completed, NULLIF(priority, '') AS priority, NULLIF(category, '') AS category, " +
+            "task_count AS taskCount FROM task_counters WHERE user_id = :userId AND task_count > 0", nativeQuery = true)
+    List<TaskStatisticsRow> findStatisticsCounters(@Param("userId") final Long userId);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.deleted = false AND t.dueDate <= :dueDate AND t.completed = false")
+    long countOverdueTasks(@Param("userId") final Long userId, @Param("dueDate") final LocalDateTime dueDate);
+
+    /**
+     * Rebuilds the counters of the next {@code maxUsers} users after {@code afterUserId}, locking only their
+     * counter rows. {@link TaskCounterReconciliation#getLastUserId()} is null once every user has been visited.
+     */
+    @Query(value = "SELECT repaired, last_user_id AS lastUserId FROM reconcile_task_counters(:afterUserId, :maxUsers)",
+            nativeQuery = true)
+    TaskCounterReconciliation reconcileStatisticsCounters(@Param("afterUserId") final long afterUserId,
+                                                          @Param("maxUsers") final int maxUsers);
+
+    @Query(TASK_RESPONSE_SELECT + "FROM Task t " +
+            "WHERE t.userId = :userId AND t.deleted = false AND t.dueDate <= :dueDate AND t.completed = false")
+    List<TaskResponse> findOverdueTasks(@Param("userId") final Long userId, @Param("dueDate") final LocalDateTime dueDate);
+
+    @Query("SELECT new pl.kwec.mymanagerplannerservice.task.TaskDeadline(t.id, t.userId, t.dueDate) FROM Task t " +
+            "WHERE t.deleted = false AND t.completed = false AND t.dueDate > :from AND t.dueDate <= :to")
+    List<TaskDeadline> findUpcomingDeadlines(@Param("from") final LocalDateTime from, @Param("to") final LocalDateTime to);
+
+    @Query("SELECT new pl.kwec.mymanagerplannerservice.task.TaskDeadline(t.id, t.userId, t.dueDate) FROM Task t " +
+            "WHERE t.id = :id AND t.userId = :userId AND t.deleted = false AND t.completed = false AND t.dueDate > :now")
+    Optional<TaskDeadline> findUpcomingDeadline(@Param("id") final Long id,
+                                                @Param("userId") final Long userId,
+                                                @Param("now") final LocalDateTime now);
+
+    /**
+     * Deadlines still ahead of the tasks that {@link #updateCompletionMatching} reopened with the same filters and
+     * {@code now}; the rows it changed are the ones stamped with exactly that {@code updatedAt}.
+     */
+    @Query("SELECT new pl.kwec.mymanagerplannerservice.task.TaskDeadline(t.id, t.userId, t.dueDate) FROM Task t " +
+            "WHERE t.userId = :userId AND t.deleted = false AND t.completed = false " +
+            "AND t.updatedAt = :now AND t.dueDate > :now " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:category IS NULL OR t.category = :category)")
+    List<TaskDeadline> findReopenedDeadlines(@Param("userId") final Long userId,
+                                             @Param("priority") final Task.Priority priority,
+                                             @Param("category") final String category,
+                                             @Param("now") final LocalDateTime now);
+
+    @Query("SELECT new pl.kwec.mymanagerplannerservice.task.TaskDeadline(t.id, t.userId, t.dueDate) FROM Task t " +
+            "WHERE t.userId IN :userIds AND t.id IN :ids AND t.deleted = false AND t.completed = false AND t.dueDate <= :now")
+    List<TaskDeadline> findOverdueDeadlines(@Param("userIds") final Collection<Long> userIds,
+                                            @Param("ids") final Collection<Long> ids,
+                                            @Param("now") final LocalDateTime now);
+}
@@ -1,71 +1,340 @@
 package pl.kwec.mymanagerplannerservice.task;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.kwec.mymanagerplannerservice.config.CacheConfig;
 import pl.kwec.mymanagerplannerservice.exception.InvalidTaskDataException;
 import pl.kwec.mymanagerplannerservice.exception.TaskNotFoundException;
 import pl.kwec.mymanagerplannerservice.exception.UnauthorizedAccessException;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskArchivedResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchItemResult;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchUpdateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBulkOperationResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskCreateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskCursorPageResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskStatisticsResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskSyncResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskTombstoneResponse;
 import pl.kwec.mymanagerplannerservice.task.dto.TaskUpdateRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "planner.task.service", description = "Time spent in TaskService operations")
 public class TaskService {
 
     private static final String TASK_NOT_FOUND = "Task not found";
     private static final String UNAUTHORIZED_ACCESS = "You are not authorized to perform this action";
     private static final String INVALID_TASK_DATA = "Task data cannot be null";
     private static final String INVALID_USER_ID = "User ID is invalid";
+    private static final String INVALID_TASK_ID = "Task ID is invalid";
+    private static final String INVALID_PAGE_SIZE = "Page size is invalid";
+    private static final String INVALID_BATCH_SIZE = "Batch size is invalid";
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String MISSING_BULK_FILTER = "At least one filter is required";
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    private static final int MAX_SYNC_PAGE_SIZE = 1000;
+    private static final TaskCursor INITIAL_SYNC_POSITION = new TaskCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+    /**
+     * A caught-up sync token never points later than this before now, so rows written by transactions that
+     * were still in flight during the previous sync are picked up by the next one. Clients apply upserts
+     * and tombstones idempotently, so the overlap only costs a few repeated rows.
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+    private static final Comparator<TaskCursor> SYNC_ORDER =
+            Comparator.comparing(TaskCursor::timestamp).thenComparing(TaskCursor::id);
 
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
     @Transactional
     public TaskResponse createTask(final TaskCreateRequest request, final Long userId) {
         validateUserIdOrThrow(userId);
         validateTaskCreateRequestOrThrow(request);
 
-        final Task task = Task.builder()
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .priority(request.getPriority() != null ? request.getPriority() : Task.Priority.MEDIUM)
-                .dueDate(request.getDueDate())
-                .category(request.getCategory())
-                .userId(userId)
-                .completed(false)
-                .deleted(false)
-                .build();
+        final Task savedTask = taskRepository.save(buildTask(request, userId));
+        publishDueDateChange(savedTask);
+        log.debug("Task created. Task ID: {}, User ID: {}", savedTask.getId(), userId);
+        final TaskResponse response = mapToResponse(savedTask);
+        publishChange(userId, TaskChangeType.CREATED, savedTask.getId(), response);
+        return response;
+    }
+
+    @Transactional
+    public TaskBatchResponse createTasks(final List<TaskCreateRequest> requests, final Long userId) {
+        validateUserIdOrThrow(userId);
+        validateBatchSizeOrThrow(requests);
+
+        final TaskBatchItemResult[] results = new TaskBatchItemResult[requests.size()];
+        final List<Task> tasks = new ArrayList<>(requests.size());
+        final List<Integer> indexes = new ArrayList<>(requests.size());
+        for (int index = 0; index < requests.size(); index++) {
+            final TaskCreateRequest request = requests.get(index);
+            if (request == null) {
+                results[index] = failedItem(index, null, HttpStatus.BAD_REQUEST, INVALID_TASK_DATA);
+                continue;
+            }
+            results[index] = validateBatchItem(index, null, request);
+            if (results[index] == null) {
+                tasks.add(buildTask(request, userId));
+                indexes.add(index);
+            }
+        }
+
+        final List<Task> savedTasks = taskRepository.saveAll(tasks);
+        taskRepository.flush();
+        for (int i = 0; i < savedTasks.size(); i++) {
+            final TaskBatchItemResult result = succeededItem(indexes.get(i), savedTasks.get(i), HttpStatus.CREATED);
+            results[indexes.get(i)] = result;
+            publishDueDateChange(savedTasks.get(i));
+            publishChange(userId, TaskChangeType.CREATED, result.getId(), result.getTask());
+        }
+        log.info("Batch create finished. Created: {}, Failed: {}, User ID: {}",
+                savedTasks.size(), requests.size() - savedTasks.size(), userId);
+        return mapToBatchResponse(results);
+    }
+
+    @Transactional
+    public TaskBatchResponse updateTasks(final List<TaskBatchUpdateRequest> requests, final Long userId) {
+        validateUserIdOrThrow(userId);
+        validateBatchSizeOrThrow(requests);
+
+        final List<Long> ids = requests.stream()
+                .filter(Objects::nonNull)
+                .map(TaskBatchUpdateRequest::getId)
+                .toList();
+        final Map<Long, Task> tasksById = findTasksById(ids, userId);
+        final Set<Long> foreignIds = findForeignIds(ids, tasksById);
+
+        final TaskBatchItemResult[] results = new TaskBatchItemResult[requests.size()];
+        for (int index = 0; index < requests.size(); index++) {
+            final TaskBatchUpdateRequest request = requests.get(index);
+            if (request == null || request.getChanges() == null) {
+                results[index] = failedItem(index, null, HttpStatus.BAD_REQUEST, INVALID_TASK_DATA);
+                continue;
+            }
+            // Invalid changes are reported before the target, as the single update's @Valid does.
+            TaskBatchItemResult failure = validateBatchItem(index, request.getId(), request.getChanges());
+            if (failure == null) {
+                failure = checkBatchTarget(index, request.getId(), tasksById, foreignIds, userId, "update");
+            }
+            if (failure != null) {
+                results[index] = failure;
+                continue;
+            }
+            final Task task = tasksById.get(request.getId());
+            updateTaskFields(task, request.getChanges());
+            if (request.getChanges().getDueDate() != null) {
+                publishDueDateChange(task);
+            }
+        }
 
-        final Task savedTask = taskRepository.save(task);
-        log.info("Task created successfully. Task ID: {}, Title: {}, User ID: {}", savedTask.getId(), savedTask.getTitle(), userId);
-        return mapToResponse(savedTask);
+        taskRepository.flush();
+        for (int index = 0; index < requests.size(); index++) {
+            if (results[index] == null) {
+                results[index] = succeededItem(index, tasksById.get(requests.get(index).getId()), HttpStatus.OK);
+                publishChange(userId, TaskChangeType.UPDATED, results[index].getId(), results[index].getTask());
+            }
+        }
+        final TaskBatchResponse response = mapToBatchResponse(results);
+        log.info("Batch update finished. Updated: {}, Failed: {}, User ID: {}",
+                response.getSucceeded(), response.getFailed(), userId);
+        return response;
+    }
+
+    @Transactional
+    public TaskBatchResponse deleteTasks(final List<Long> ids, final Long userId) {
+        validateUserIdOrThrow(userId);
+        validateBatchSizeOrThrow(ids);
+
+        final Map<Long, Task> tasksById = findTasksById(ids, userId);
+        final Set<Long> foreignIds = findForeignIds(ids, tasksById);
+        final TaskBatchItemResult[] results = new TaskBatchItemResult[ids.size()];
+        for (int index = 0; index < ids.size(); index++) {
+            final Long id = ids.get(index);
+            final TaskBatchItemResult failure = checkBatchTarget(index, id, tasksById, foreignIds, userId, "delete");
+            if (failure != null) {
+                results[index] = failure;
+                continue;
+            }
+            final Task task = tasksById.get(id);
+            results[index] = TaskBatchItemResult.builder()
+                    .index(index)
+                    .id(id)
+                    .status(HttpStatus.NO_CONTENT.value())
+                    .build();
+            // Deleting an already deleted task is a no-op, as in deleteTask.
+            if (!task.isDeleted()) {
+                task.setDeleted(true);
+                task.setDeletedAt(LocalDateTime.now());
+                publishChange(userId, TaskChangeType.DELETED, id, null);
+            }
+        }
+
+        taskRepository.flush();
+        final TaskBatchResponse response = mapToBatchResponse(results);
+        log.info("Batch soft delete finished. Deleted: {}, Failed: {}, User ID: {}",
+                response.getSucceeded(), response.getFailed(), userId);
+        return response;
     }
 
     @Transactional(readOnly = true)
     public Page<TaskResponse> getUserTasks(final Long userId, final Pageable pageable) {
         validateUserIdOrThrow(userId);
         log.debug("Fetching tasks for user: {}, Page: {}", userId, pageable.getPageNumber());
-        return taskRepository.findAllByUserId(userId, pageable)
-                .map(this::mapToResponse);
+        return taskRepository.findResponsesByUserId(userId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TaskResponse> getArchivedTasks(final Long userId, final Pageable pageable) {
+        validateUserIdOrThrow(userId);
+        log.debug("Fetching archived tasks for user: {}, Page: {}", userId, pageable.getPageNumber());
+        return taskRepository.findArchivedResponsesByUserId(userId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public String getTasksETag(final Long userId) {
+        validateUserIdOrThrow(userId);
+        return taskRepository.findVersion(userId, LocalDateTime.now()).toETag();
+    }
+
+    @Transactional(readOnly = true)
+    public TaskSyncResponse syncTasks(final Long userId, final String since, final int size) {
+        validateUserIdOrThrow(userId);
+        validateSyncPageSizeOrThrow(size);
+        log.debug("Syncing tasks for user: {}, Since: {}", userId, since);
+
+        final boolean initialSync = since == null || since.isBlank();
+        final TaskCursor position = initialSync ? INITIAL_SYNC_POSITION : TaskCursor.decode(since);
+        final List<Task> changed = taskRepository.findChangedSince(userId, position.timestamp(), position.id(),
+                Limit.of(size + 1));
+        final List<ArchivedTask> archived = initialSync
+                ? List.of()
+                : taskRepository.findArchivedSince(userId, position.timestamp(), position.id(), Limit.of(size + 1));
+
+        // Both lists are ordered by (timestamp, id) and one token positions both, so they are merged in that order.
+        final List<TaskResponse> upserts = new ArrayList<>();
+        final List<TaskTombstoneResponse> deleted = new ArrayList<>();
+        final List<TaskArchivedResponse> archivedTasks = new ArrayList<>();
+        TaskCursor next = position;
+        int changedIndex = 0;
+        int archivedIndex = 0;
+        while (changedIndex + archivedIndex < size
+                && (changedIndex < changed.size() || archivedIndex < archived.size())) {
+            final TaskCursor changedPosition = changedIndex < changed.size()
+                    ? new TaskCursor(changed.get(changedIndex).getUpdatedAt(), changed.get(changedIndex).getId())
+                    : null;
+            final TaskCursor archivedPosition = archivedIndex < archived.size()
+                    ? new TaskCursor(archived.get(archivedIndex).getArchivedAt(), archived.get(archivedIndex).getId())
+                    : null;
+            if (changedPosition == null || archivedPosition != null && SYNC_ORDER.compare(archivedPosition, changedPosition) < 0) {
+                final ArchivedTask task = archived.get(archivedIndex++);
+                if (task.isDeleted()) {
+                    deleted.add(TaskTombstoneResponse.builder()
+                            .id(task.getId())
+                            .deletedAt(task.getDeletedAt())
+                            .build());
+                } else {
+                    archivedTasks.add(TaskArchivedResponse.builder()
+                            .id(task.getId())
+                            .archivedAt(task.getArchivedAt())
+                            .build());
+                }
+                next = archivedPosition;
+            } else {
+                final Task task = changed.get(changedIndex++);
+                if (!task.isDeleted()) {
+                    upserts.add(mapToResponse(task));
+                } else if (!initialSync) {
+                    deleted.add(TaskTombstoneResponse.builder()
+                            .id(task.getId())
+                            .deletedAt(task.getDeletedAt())
+                            .build());
+                }
+                next = changedPosition;
+            }
+        }
+
+        final boolean hasMore = changedIndex < changed.size() || archivedIndex < archived.size();
+        final LocalDateTime settled = LocalDateTime.now().minus(SYNC_OVERLAP);
+        if (!hasMore && next.timestamp().isAfter(settled)) {
+            next = new TaskCursor(settled, 0L);
+        }
+        return TaskSyncResponse.builder()
+                .upserts(upserts)
+                .deleted(deleted)
+                .archived(archivedTasks)
+                .nextToken(next.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public TaskCursorPageResponse scrollUserTasks(final Long userId, final String cursor, final int size) {
+        validateUserIdOrThrow(userId);
+        validatePageSizeOrThrow(size);
+        log.debug("Scrolling tasks for user: {}, Cursor: {}", userId, cursor);
+
+        final Limit limit = Limit.of(size + 1);
+        final List<Task> tasks;
+        if (cursor == null || cursor.isBlank()) {
+            tasks = taskRepository.findAllByUserId(userId, limit);
+        } else {
+            final TaskCursor position = TaskCursor.decode(cursor);
+            tasks = taskRepository.findAllByUserIdAfter(userId, position.timestamp(), position.id(), limit);
+        }
+        return mapToCursorPage(tasks, size);
     }
 
     @Transactional(readOnly = true)
     public List<TaskResponse> getUserTasks(final Long userId) {
         validateUserIdOrThrow(userId);
         log.debug("Fetching all tasks for user: {}", userId);
-        return taskRepository.findAllByUserId(userId).stream()
-                .map(this::mapToResponse)
-                .toList();
+        return taskRepository.findResponsesByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUserTasks(final Long userId, final Consumer<TaskResponse> consumer) {
+        validateUserIdOrThrow(userId);
+        log.debug("Streaming all tasks for user: {}", userId);
+        try (Stream<TaskResponse> tasks = taskRepository.streamAllByUserId(userId)) {
+            tasks.forEach(consumer);
+        }
     }
 
     @Transactional
@@ -73,13 +342,76 @@ public class TaskService {
         validateUserIdOrThrow(userId);
         validateTaskIdOrThrow(id);
 
-        final Task task = getTaskByIdOrThrow(id);
-        validateOwnershipOrThrow(task.getUserId(), userId, "delete");
+        if (taskRepository.softDeleteByIdAndUserId(id, userId, LocalDateTime.now()) == 0) {
+            resolveUnmatchedTaskOrThrow(id, userId, "delete");
+            log.debug("Task already deleted. Task ID: {}, User ID: {}", id, userId);
+            return;
+        }
+        publishChange(userId, TaskChangeType.DELETED, id, null);
+        log.debug("Task soft deleted. Task ID: {}, User ID: {}", id, userId);
+    }
 
-        task.setDeleted(true);
-        task.setDeletedAt(LocalDateTime.now());
-        taskRepository.save(task);
-        log.info("Task soft deleted. Task ID: {}, User ID: {}", id, userId);
+    @Transactional
+    public void updateTaskCompletion(final Long id, final boolean completed, final Long userId) {
+        validateUserIdOrThrow(userId);
+        validateTaskIdOrThrow(id);
+
+        final LocalDateTime now = LocalDateTime.now();
+        if (taskRepository.updateCompletionByIdAndUserId(id, userId, completed, now) == 0) {
+            resolveUnmatchedTaskOrThrow(id, userId, "update");
+            log.warn("Task is deleted. Task ID: {}", id);
+            throw new TaskNotFoundException(TASK_NOT_FOUND);
+        }
+        if (!completed) {
+            // The overdue scheduler only loads open tasks, so a reopened one has to be handed to it again.
+            taskRepository.findUpcomingDeadline(id, userId, now).ifPresent(this::publishDeadline);
+        }
+        publishChange(userId, completed ? TaskChangeType.COMPLETED : TaskChangeType.REOPENED, id, null);
+        log.debug("Task completion set to {}. Task ID: {}, User ID: {}", completed, id, userId);
+    }
+
+    @Transactional
+    public TaskBulkOperationResponse updateCompletionMatching(final Long userId, final Task.Priority priority,
+                                                              final String category, final boolean completed) {
+        validateUserIdOrThrow(userId);
+
+        final String categoryFilter = normalizeFilter(category);
+        // Truncated to the column precision, so the reopened rows can be found again by their updatedAt.
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        final int affected = taskRepository.updateCompletionMatching(userId, priority, categoryFilter, completed, now);
+        if (affected > 0) {
+            if (!completed) {
+                taskRepository.findReopenedDeadlines(userId, priority, categoryFilter, now).forEach(this::publishDeadline);
+            }
+            publishChange(userId, TaskChangeType.BULK_CHANGED, null, null);
+        }
+        log.info("Bulk completion set to {}. Affected: {}, Priority: {}, Category: {}, User ID: {}",
+                completed, affected, priority, category, userId);
+        return TaskBulkOperationResponse.builder()
+                .affectedCount(affected)
+                .build();
+    }
+
+    @Transactional
+    public TaskBulkOperationResponse deleteMatching(final Long userId, final Task.Priority priority,
+                                                    final String category, final Boolean completed) {
+        validateUserIdOrThrow(userId);
+        final String categoryFilter = normalizeFilter(category);
+        if (priority == null && categoryFilter == null && completed == null) {
+            log.warn("Bulk delete without filters rejected. User ID: {}", userId);
+            throw new IllegalArgumentException(MISSING_BULK_FILTER);
+        }
+
+        final int affected = taskRepository.softDeleteMatching(
+                userId, priority, categoryFilter, completed, LocalDateTime.now());
+        if (affected > 0) {
+            publishChange(userId, TaskChangeType.BULK_CHANGED, null, null);
+        }
+        log.info("Bulk soft delete finished. Affected: {}, Priority: {}, Category: {}, Completed: {}, User ID: {}",
+                affected, priority, category, completed, userId);
+        return TaskBulkOperationResponse.builder()
+                .affectedCount(affected)
+                .build();
     }
 
     @Transactional
@@ -87,49 +419,97 @@ public class TaskService {
         validateUserIdOrThrow(userId);
         validateTaskIdOrThrow(id);
 
-        final Task task = getTaskByIdOrThrow(id);
-        validateOwnershipOrThrow(task.getUserId(), userId, "update");
+        final Task task = getTaskByIdOrThrow(id, userId, "update");
 
         updateTaskFields(task, request);
-        final Task updatedTask = taskRepository.save(task);
-        log.info("Task updated successfully. Task ID: {}, User ID: {}", id, userId);
-        return mapToResponse(updatedTask);
+        if (request.getDueDate() != null) {
+            publishDueDateChange(task);
+        }
+        log.debug("Task updated. Task ID: {}, User ID: {}", id, userId);
+        final TaskResponse response = mapToResponse(task);
+        publishChange(userId, TaskChangeType.UPDATED, id, response);
+        return response;
     }
 
+    /**
+     * {@code eTag} is the user's version as returned by {@link #getTasksETag}. It only keys the cache, so an
+     * entry is never served under a newer version than the one it was loaded for, and no write has to evict it.
+     * Cache entries are therefore never rewritten, which is what keeps the shared tier free of cache-aside races.
+     */
     @Transactional(readOnly = true)
-    public TaskStatisticsResponse getTaskStatistics(final Long userId) {
+    @Cacheable(cacheNames = CacheConfig.TASK_STATISTICS_CACHE, key = "#userId + ':' + #eTag",
+            condition = "#userId != null && #eTag != null")
+    public TaskStatisticsResponse getTaskStatistics(final Long userId, final String eTag) {
         validateUserIdOrThrow(userId);
-        final long completed = taskRepository.countCompletedTasks(userId);
-        final long pending = taskRepository.countPendingTasks(userId);
-        log.debug("Task statistics for user {}: completed={}, pending={}", userId, completed, pending);
-        return TaskStatisticsResponse.builder()
-                .completedCount(completed)
-                .pendingCount(pending)
-                .totalCount(completed + pending)
-                .completionPercentage(calculateCompletionPercentage(completed, pending))
-                .build();
+        final List<TaskStatisticsRow> counters = taskRepository.findStatisticsCounters(userId);
+        final long overdue = taskRepository.countOverdueTasks(userId, LocalDateTime.now());
+        final TaskStatisticsResponse statistics = buildStatistics(counters, overdue);
+        log.debug("Task statistics for user {}: completed={}, pending={}, overdue={}",
+                userId, statistics.getCompletedCount(), statistics.getPendingCount(), statistics.getOverdueCount());
+        return statistics;
     }
 
+    /**
+     * Cached per version like {@link #getTaskStatistics}; a deadline passing moves the version too.
+     */
     @Transactional(readOnly = true)
-    public List<TaskResponse> getOverdueTasks(final Long userId) {
+    @Cacheable(cacheNames = CacheConfig.OVERDUE_TASKS_CACHE, key = "#userId + ':' + #eTag",
+            condition = "#userId != null && #eTag != null")
+    public List<TaskResponse> getOverdueTasks(final Long userId, final String eTag) {
         validateUserIdOrThrow(userId);
-        final List<Task> overdue = taskRepository.findOverdueTasks(userId, LocalDateTime.now());
+        final List<TaskResponse> overdue = taskRepository.findOverdueTasks(userId, LocalDateTime.now());
         log.debug("Found {} overdue tasks for user {}", overdue.size(), userId);
-        return overdue.stream()
-                .map(this::mapToResponse)
-                .toList();
+        return overdue;
+    }
+
+    @EventListener
+    public void onTasksArchived(final TasksArchivedEvent event) {
+        log.debug("Archived {} tasks of user: {}", event.archivedCount(), event.userId());
+        publishChange(event.userId(), TaskChangeType.BULK_CHANGED, null, null);
     }
 
     @Transactional(readOnly = true)
-    public Page<TaskResponse> searchTasks(final Long userId, final String title, final Task.Priority priority,
-                                          final Boolean completed, final String category, final Pageable pageable) {
+    public Page<TaskResponse> searchTasks(final Long userId, final String query, final String title,
+                                          final Task.Priority priority, final Boolean completed,
+                                          final String category, final Pageable pageable) {
         validateUserIdOrThrow(userId);
-        log.debug("Searching tasks for user {} with filters: title={}, priority={}, completed={}, category={}",
-                userId, title, priority, completed, category);
+        log.debug("Searching tasks for user {} with filters: query={}, title={}, priority={}, completed={}, category={}",
+                userId, query, title, priority, completed, category);
+
+        final Specification<Task> spec = buildSearchSpecification(userId, query, title, priority, completed, category);
+        return taskRepository.findResponses(spec, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskCursorPageResponse scrollSearchTasks(final Long userId, final String query, final String title,
+                                                    final Task.Priority priority, final Boolean completed,
+                                                    final String category, final String cursor, final int size) {
+        validateUserIdOrThrow(userId);
+        validatePageSizeOrThrow(size);
+        log.debug("Scrolling search for user {} with filters: query={}, title={}, priority={}, completed={}, category={}, cursor={}",
+                userId, query, title, priority, completed, category, cursor);
+
+        Specification<Task> spec = buildSearchSpecification(userId, query, title, priority, completed, category);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(TaskSpecification.createdBeforeCursor(TaskCursor.decode(cursor)));
+        }
 
-        org.springframework.data.jpa.domain.Specification<Task> spec = TaskSpecification.byUserId(userId)
+        final List<Task> tasks = taskRepository.findBy(spec, fluentQuery -> fluentQuery
+                .sortBy(KEYSET_SORT)
+                .limit(size + 1)
+                .all());
+        return mapToCursorPage(tasks, size);
+    }
+
+    Specification<Task> buildSearchSpecification(final Long userId, final String query, final String title,
+                                                 final Task.Priority priority, final Boolean completed,
+                                                 final String category) {
+        Specification<Task> spec = TaskSpecification.byUserId(userId)
                 .and(TaskSpecification.notDeleted());
 
+        if (query != null && !query.isBlank()) {
+            spec = spec.and(TaskSpecification.matchingText(query.strip()));
+        }
         if (title != null && !title.isBlank()) {
             spec = spec.and(TaskSpecification.byTitleContaining(title));
         }
@@ -142,19 +522,92 @@ public class TaskService {
         if (category != null && !category.isBlank()) {
             spec = spec.and(TaskSpecification.byCategory(category));
         }
+        return spec;
+    }
 
-        return taskRepository.findAll(spec, pageable)
-                .map(this::mapToResponse);
+    private Task buildTask(final TaskCreateRequest request, final Long userId) {
+        return Task.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .priority(request.getPriority() != null ? request.getPriority() : Task.Priority.MEDIUM)
+                .dueDate(request.getDueDate())
+                .category(request.getCategory())
+                .userId(userId)
+                .completed(false)
+                .deleted(false)
+                .build();
+    }
+
+    private Map<Long, Task> findTasksById(final List<Long> ids, final Long userId) {
+        final List<Long> validIds = ids.stream()
+                .filter(id -> id != null && id > 0)
+                .distinct()
+                .toList();
+        if (validIds.isEmpty()) {
+            return Map.of();
+        }
+        return taskRepository.findAllByIdInAndUserId(validIds, userId).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
     }
 
+    /**
+     * Ids the user-scoped lookup did not return either do not exist or belong to someone else; only
+     * those are looked up across partitions to tell the two apart.
+     */
+    private Set<Long> findForeignIds(final List<Long> ids, final Map<Long, Task> tasksById) {
+        final List<Long> unmatchedIds = ids.stream()
+                .filter(id -> id != null && id > 0 && !tasksById.containsKey(id))
+                .distinct()
+                .toList();
+        if (unmatchedIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(taskRepository.findExistingIds(unmatchedIds));
+    }
+
+    /**
+     * Runs the bean validation the single-item endpoints get from {@code @Valid}, so an invalid item is reported
+     * on its own instead of failing the whole batch at flush.
+     */
+    private TaskBatchItemResult validateBatchItem(final int index, final Long id, final Object request) {
+        final String violations = validator.validate(request).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+        return violations.isEmpty() ? null : failedItem(index, id, HttpStatus.BAD_REQUEST, violations);
+    }
 
+    private TaskBatchItemResult checkBatchTarget(final int index, final Long id, final Map<Long, Task> tasksById,
+                                                 final Set<Long> foreignIds, final Long userId, final String action) {
+        if (id == null || id <= 0) {
+            return failedItem(index, id, HttpStatus.BAD_REQUEST, INVALID_TASK_ID);
+        }
+        if (foreignIds.contains(id)) {
+            log.warn("Unauthorized batch {} attempt. Task ID: {}, Current User ID: {}", action, id, userId);
+            return failedItem(index, id, HttpStatus.FORBIDDEN, UNAUTHORIZED_ACCESS);
+        }
+        if (!tasksById.containsKey(id)) {
+            return failedItem(index, id, HttpStatus.NOT_FOUND, TASK_NOT_FOUND);
+        }
+        return null;
+    }
+
+    private Task getTaskByIdOrThrow(final Long id, final Long userId, final String action) {
+        return taskRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> {
+                    resolveUnmatchedTaskOrThrow(id, userId, action);
+                    log.warn("Task not found. Task ID: {}", id);
+                    return new TaskNotFoundException(TASK_NOT_FOUND);
+                });
+    }
 
-    private Task getTaskByIdOrThrow(final Long id) {
-        return taskRepository.findById(id)
+    private void resolveUnmatchedTaskOrThrow(final Long id, final Long userId, final String action) {
+        final Long ownerId = taskRepository.findOwnerIdById(id)
                 .orElseThrow(() -> {
                     log.warn("Task not found. Task ID: {}", id);
                     return new TaskNotFoundException(TASK_NOT_FOUND);
                 });
+        validateOwnershipOrThrow(ownerId, userId, action);
     }
 
     private void validateOwnershipOrThrow(final Long taskUserId, final Long currentUserId, final String action) {
@@ -171,7 +624,7 @@ public class TaskService {
         }
     }
 
-    private void validateUserIdOrThrow(final Long userId) {
+    void validateUserIdOrThrow(final Long userId) {
         if (userId == null || userId <= 0) {
             log.warn("Invalid user ID: {}", userId);
             throw new IllegalArgumentException(INVALID_USER_ID);
@@ -181,11 +634,50 @@ public class TaskService {
     private void validateTaskIdOrThrow(final Long id) {
         if (id == null || id <= 0) {
             log.warn("Invalid task ID: {}", id);
-            throw new IllegalArgumentException("Task ID is invalid");
+            throw new IllegalArgumentException(INVALID_TASK_ID);
+        }
+    }
+
+    private void validateBatchSizeOrThrow(final List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            log.warn("Invalid batch size: {}", items == null ? null : items.size());
+            throw new IllegalArgumentException(INVALID_BATCH_SIZE);
+        }
+    }
+
+    private void validatePageSizeOrThrow(final int size) {
+        if (size <= 0) {
+            log.warn("Invalid page size: {}", size);
+            throw new IllegalArgumentException(INVALID_PAGE_SIZE);
+        }
+    }
+
+    private void validateSyncPageSizeOrThrow(final int size) {
+        if (size <= 0 || size > MAX_SYNC_PAGE_SIZE) {
+            log.warn("Invalid sync page size: {}", size);
+            throw new IllegalArgumentException(INVALID_PAGE_SIZE);
+        }
+    }
+
+    private String normalizeFilter(final String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private void publishChange(final Long userId, final TaskChangeType type, final Long taskId, final TaskResponse task) {
+        eventPublisher.publishEvent(new TaskChangedEvent(userId, type, taskId, task));
+    }
+
+    private void publishDueDateChange(final Task task) {
+        if (task.getDueDate() != null) {
+            eventPublisher.publishEvent(new TaskDueDateChangedEvent(task.getId(), task.getUserId(), task.getDueDate()));
         }
     }
 
-    private void updateTaskFields(final Task task, final TaskUpdateRequest request) {
+    private void publishDeadline(final TaskDeadline deadline) {
+        eventPublisher.publishEvent(new TaskDueDateChangedEvent(deadline.taskId(), deadline.userId(), deadline.dueDate()));
+    }
+
+    void updateTaskFields(final Task task, final TaskUpdateRequest request) {
         if (request.getTitle() != null && !request.getTitle().isBlank()) {
             task.setTitle(request.getTitle());
         }
@@ -206,7 +698,7 @@ public class TaskService {
         }
     }
 
-    private TaskResponse mapToResponse(final Task task) {
+    TaskResponse mapToResponse(final Task task) {
         return TaskResponse.builder()
                 .id(task.getId())
                 .title(task.getTitle())
@@ -220,6 +712,81 @@ public class TaskService {
                 .build();
     }
 
+    private TaskCursorPageResponse mapToCursorPage(final List<Task> tasks, final int size) {
+        final boolean hasNext = tasks.size() > size;
+        final List<Task> content = hasNext ? tasks.subList(0, size) : tasks;
+        final String nextCursor = hasNext ? TaskCursor.of(content.get(content.size() - 1)).encode() : null;
+        return TaskCursorPageResponse.builder()
+                .content(content.stream().map(this::mapToResponse).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private TaskBatchItemResult succeededItem(final int index, final Task task, final HttpStatus status) {
+        return TaskBatchItemResult.builder()
+                .index(index)
+                .id(task.getId())
+                .status(status.value())
+                .task(mapToResponse(task))
+                .build();
+    }
+
+    private TaskBatchItemResult failedItem(final int index, final Long id, final HttpStatus status, final String message) {
+        return TaskBatchItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(status.value())
+                .message(message)
+                .build();
+    }
+
+    private TaskBatchResponse mapToBatchResponse(final TaskBatchItemResult[] results) {
+        final int failed = (int) Arrays.stream(results)
+                .filter(result -> result.getMessage() != null)
+                .count();
+        return TaskBatchResponse.builder()
+                .results(Arrays.asList(results))
+                .succeeded(results.length - failed)
+                .failed(failed)
+                .build();
+    }
+
+    private TaskStatisticsResponse buildStatistics(final List<TaskStatisticsRow> rows, final long overdue) {
+        long completed = 0;
+        long pending = 0;
+        final Map<Task.Priority, Long> countByPriority = new EnumMap<>(Task.Priority.class);
+        for (final Task.Priority priority : Task.Priority.values()) {
+            countByPriority.put(priority, 0L);
+        }
+        final Map<String, Long> countByCategory = new TreeMap<>();
+
+        for (final TaskStatisticsRow row : rows) {
+            final long count = row.getTaskCount();
+            if (Boolean.TRUE.equals(row.getCompleted())) {
+                completed += count;
+            } else {
+                pending += count;
+            }
+            if (row.getPriority() != null) {
+                countByPriority.merge(row.getPriority(), count, Long::sum);
+            }
+            if (row.getCategory() != null) {
+                countByCategory.merge(row.getCategory(), count, Long::sum);
+            }
+        }
+
+        return TaskStatisticsResponse.builder()
+                .completedCount(completed)
+                .pendingCount(pending)
+                .totalCount(completed + pending)
+                .overdueCount(overdue)
+                .completionPercentage(calculateCompletionPercentage(completed, pending))
+                .countByPriority(countByPriority)
+                .countByCategory(countByCategory)
+                .build();
+    }
+
     private double calculateCompletionPercentage(final long completed, final long pending) {
         final long total = completed + pending;
         if (total == 0) {
@@ -1,5 +1,6 @@
 package pl.kwec.mymanagerplannerservice.task;
 
+import jakarta.persistence.criteria.Expression;
 import org.springframework.data.jpa.domain.Specification;
 import pl.kwec.mymanagerplannerservice.task.Task.Priority;
 
@@ -15,7 +16,7 @@ public final class TaskSpecification {
     }
 
     public static Specification<Task> notDeleted() {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("deleted"), false);
+        return (root, query, criteriaBuilder) -> criteriaBuilder.isFalse(root.get("deleted"));
     }
 
     public static Specification<Task> byPriority(final Priority priority) {
@@ -35,6 +36,27 @@ public final class TaskSpecification {
                 criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), "%" + title.toLowerCase() + "%");
     }
 
+    public static Specification<Task> matchingText(final String text) {
+        final String term = text.toLowerCase();
+        final String pattern = "%" + term + "%";
+        return (root, query, criteriaBuilder) -> {
+            final Expression<String> title = criteriaBuilder.lower(root.get("title"));
+            final Expression<String> description = criteriaBuilder.lower(
+                    criteriaBuilder.coalesce(root.get("description"), ""));
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        criteriaBuilder.desc(criteriaBuilder.function("word_similarity", Double.class,
+                                criteriaBuilder.literal(term), title)),
+                        criteriaBuilder.desc(criteriaBuilder.function("word_similarity", Double.class,
+                                criteriaBuilder.literal(term), description)),
+                        criteriaBuilder.desc(root.get("createdAt")));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.like(title, pattern),
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), pattern));
+        };
+    }
+
     public static Specification<Task> dueDateBetween(final LocalDateTime startDate, final LocalDateTime endDate) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.between(root.get("dueDate"), startDate, endDate);
@@ -44,6 +66,14 @@ public final class TaskSpecification {
         return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), date);
     }
 
+    public static Specification<Task> createdBeforeCursor(final TaskCursor cursor) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.lessThan(root.get("createdAt"), cursor.timestamp()),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("createdAt"), cursor.timestamp()),
+                        criteriaBuilder.lessThan(root.get("id"), cursor.id())));
+    }
+
     public static Specification<Task> createdBefore(final LocalDateTime date) {
         return (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), date);
     }
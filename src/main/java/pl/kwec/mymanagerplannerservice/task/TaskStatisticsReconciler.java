@@ -0,0 +1,51 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Repairs drifted task_counters buckets. Users are visited in batches of
+ * {@code planner.statistics.reconciliation-batch-size}, each in its own transaction that only locks that
+ * batch's counter rows, so task writes of other users carry on.
+ */
+@Component
+@Slf4j
+public class TaskStatisticsReconciler {
+
+    private final TaskRepository taskRepository;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+
+    public TaskStatisticsReconciler(final TaskRepository taskRepository,
+                                    final TransactionOperations transactionOperations,
+                                    @Value("${planner.statistics.reconciliation-batch-size}") final int batchSize) {
+        this.taskRepository = taskRepository;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${planner.statistics.reconciliation-cron}")
+    public int reconcile() {
+        int repaired = 0;
+        Long lastUserId = 0L;
+        while (lastUserId != null) {
+            final long afterUserId = lastUserId;
+            final TaskCounterReconciliation batch = transactionOperations.execute(
+                    status -> taskRepository.reconcileStatisticsCounters(afterUserId, batchSize));
+            if (batch == null) {
+                break;
+            }
+            repaired += batch.getRepaired();
+            lastUserId = batch.getLastUserId();
+        }
+        if (repaired > 0) {
+            log.warn("Repaired {} drifted task statistics counters", repaired);
+        } else {
+            log.debug("Task statistics counters are consistent");
+        }
+        return repaired;
+    }
+}
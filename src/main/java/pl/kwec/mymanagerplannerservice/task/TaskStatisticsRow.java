@@ -0,0 +1,12 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+public interface TaskStatisticsRow {
+
+    Boolean getCompleted();
+
+    Task.Priority getPriority();
+
+    String getCategory();
+
+    Long getTaskCount();
+}
@@ -0,0 +1,31 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Cheap fingerprint of everything a user's task lists and statistics are derived from. The version is bumped
+ * by the counters trigger on every insert, update or delete of the user's tasks, archive moves included, and a
+ * deadline passing moves the last passed due date, which is what changes the overdue count without any write.
+ */
+public interface TaskVersion {
+
+    Long getVersion();
+
+    LocalDateTime getLastPassedDueDate();
+
+    /**
+     * Weak, because the same version is rendered in more than one representation.
+     */
+    default String toETag() {
+        return "W/\"" + Long.toString(getVersion(), 36) + "-" + encode(getLastPassedDueDate()) + "\"";
+    }
+
+    private static String encode(final LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return "0";
+        }
+        final long micros = timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+}
@@ -0,0 +1,7 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+/**
+ * Published by {@link TaskArchiver} for every user whose tasks a batch moved into the archive.
+ */
+public record TasksArchivedEvent(Long userId, int archivedCount) {
+}
@@ -0,0 +1,18 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskArchivedResponse {
+
+    private Long id;
+    private LocalDateTime archivedAt;
+}
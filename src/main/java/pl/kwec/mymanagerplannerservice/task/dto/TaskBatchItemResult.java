@@ -0,0 +1,19 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchItemResult {
+
+    private int index;
+    private Long id;
+    private int status;
+    private TaskResponse task;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchResponse {
+
+    private List<TaskBatchItemResult> results;
+    private int succeeded;
+    private int failed;
+}
@@ -0,0 +1,19 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchUpdateRequest {
+
+    private Long id;
+
+    @JsonUnwrapped
+    private TaskUpdateRequest changes;
+}
@@ -0,0 +1,15 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBulkOperationResponse {
+
+    private int affectedCount;
+}
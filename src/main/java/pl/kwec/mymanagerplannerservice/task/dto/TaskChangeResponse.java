@@ -0,0 +1,18 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import pl.kwec.mymanagerplannerservice.task.TaskChangeType;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangeResponse {
+
+    private TaskChangeType type;
+    private Long taskId;
+    private TaskResponse task;
+}
@@ -1,6 +1,7 @@
 package pl.kwec.mymanagerplannerservice.task.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -16,8 +17,10 @@ import java.time.LocalDateTime;
 public class TaskCreateRequest {
 
     @NotBlank(message = "Task title cannot be empty")
+    @Size(max = 255, message = "Task title cannot be longer than 255 characters")
     private String title;
 
+    @Size(max = 255, message = "Task description cannot be longer than 255 characters")
     private String description;
 
     @Builder.Default
@@ -25,5 +28,6 @@ public class TaskCreateRequest {
 
     private LocalDateTime dueDate;
 
+    @Size(max = 255, message = "Task category cannot be longer than 255 characters")
     private String category;
 }
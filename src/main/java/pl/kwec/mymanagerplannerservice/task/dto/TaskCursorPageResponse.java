@@ -0,0 +1,19 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskCursorPageResponse {
+
+    private List<TaskResponse> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import pl.kwec.mymanagerplannerservice.task.Task;
+
+import java.util.Map;
 
 @Getter
 @NoArgsConstructor
@@ -14,5 +17,8 @@ public class TaskStatisticsResponse {
     private long completedCount;
     private long pendingCount;
     private long totalCount;
+    private long overdueCount;
     private double completionPercentage;
+    private Map<Task.Priority, Long> countByPriority;
+    private Map<String, Long> countByCategory;
 }
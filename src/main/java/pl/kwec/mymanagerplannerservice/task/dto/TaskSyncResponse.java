@@ -0,0 +1,25 @@
+package pl.kwec.mymanagerplannerservice.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSyncResponse {
+
+    private List<TaskResponse> upserts;
+    private List<TaskTombstoneResponse> deleted;
+    /**
+     * Completed tasks moved to the archive; they are gone from the task list but still listed by
+     * {@code GET /tasks/archived}, so clients should not treat them as deleted.
+     */
+    private List<TaskArchivedResponse> archived;
+    private String nextToken;
+    private boolean hasMore;
+}
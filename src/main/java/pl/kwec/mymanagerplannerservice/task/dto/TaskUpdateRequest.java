@@ -1,5 +1,6 @@
 package pl.kwec.mymanagerplannerservice.task.dto;
 
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,10 +15,16 @@ import java.time.LocalDateTime;
 @Builder
 public class TaskUpdateRequest {
 
+    @Size(max = 255, message = "Task title cannot be longer than 255 characters")
     private String title;
+
+    @Size(max = 255, message = "Task description cannot be longer than 255 characters")
     private String description;
+
     private Boolean completed;
     private Task.Priority priority;
     private LocalDateTime dueDate;
+
+    @Size(max = 255, message = "Task category cannot be longer than 255 characters")
     private String category;
 }
@@ -0,0 +1,56 @@
+-- Completed tasks moved to tasks_archive stay the user's tasks (GET /tasks/archived), so archiving them must not
+-- change the statistics. Counting live rows of tasks_archive with the same trigger function makes the move net
+-- zero: the DELETE from tasks takes a row out of its bucket and the INSERT into tasks_archive puts it back.
+-- Archived soft-deleted rows are never counted, as before.
+CREATE TRIGGER tasks_archive_counters
+    AFTER INSERT OR DELETE
+    ON tasks_archive
+    FOR EACH ROW
+EXECUTE FUNCTION tasks_maintain_counters();
+
+-- Rows archived before this migration were already taken out of the counters. The trigger above holds off the
+-- archiver until this commits, so every row is either counted here or by the trigger, never both.
+INSERT INTO task_counters (user_id, completed, priority, category, task_count)
+SELECT user_id, completed, coalesce(priority, ''), coalesce(category, ''), count(*)
+FROM tasks_archive
+WHERE NOT is_deleted
+GROUP BY 1, 2, 3, 4
+ON CONFLICT (user_id, completed, priority, category)
+    DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count;
+
+-- Same as V2, but live archived rows count towards their bucket.
+CREATE OR REPLACE FUNCTION reconcile_task_counters() RETURNS INTEGER AS
+$$
+DECLARE
+    repaired INTEGER;
+BEGIN
+    LOCK TABLE task_counters IN EXCLUSIVE MODE;
+
+    WITH actual AS (SELECT user_id,
+                           completed,
+                           coalesce(priority, '') AS priority,
+                           coalesce(category, '') AS category,
+                           count(*)               AS task_count
+                    FROM (SELECT user_id, completed, priority, category FROM tasks WHERE NOT is_deleted
+                          UNION ALL
+                          SELECT user_id, completed, priority, category FROM tasks_archive WHERE NOT is_deleted) live
+                    GROUP BY 1, 2, 3, 4),
+         drifted AS (SELECT user_id, completed, priority, category, coalesce(a.task_count, 0) AS task_count
+                     FROM actual a
+                              FULL JOIN task_counters c USING (user_id, completed, priority, category)
+                     WHERE coalesce(a.task_count, 0) <> coalesce(c.task_count, 0)),
+         upserted AS (
+             INSERT INTO task_counters (user_id, completed, priority, category, task_count)
+                 SELECT user_id, completed, priority, category, task_count FROM drifted
+                 ON CONFLICT (user_id, completed, priority, category)
+                     DO UPDATE SET task_count = EXCLUDED.task_count
+                 RETURNING 1)
+    SELECT count(*)
+    INTO repaired
+    FROM upserted;
+
+    DELETE FROM task_counters WHERE task_count = 0;
+
+    RETURN repaired;
+END;
+$$ LANGUAGE plpgsql;
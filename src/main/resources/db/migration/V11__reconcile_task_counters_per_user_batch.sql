@@ -0,0 +1,67 @@
+-- Replaces the table-wide reconciliation, which locked task_counters in EXCLUSIVE mode and so held back every
+-- task write until the whole tasks table had been aggregated. The new function rebuilds the buckets of the next
+-- max_users users after after_user_id and is called in its own short transaction per batch; last_user_id is
+-- NULL once no users are left.
+--
+-- Locking the batch's counter rows first makes writers of those users that already touched them commit before
+-- the tasks are counted (each statement below takes a fresh snapshot), and makes later writers wait until the
+-- rebuilt counts are committed. Writers of other users are never blocked. The one case left is a drifted bucket without a row
+-- whose row a writer is creating concurrently; it may stay off by that write until the next run.
+DROP FUNCTION reconcile_task_counters();
+
+CREATE FUNCTION reconcile_task_counters(after_user_id BIGINT, max_users INTEGER,
+                                        OUT repaired INTEGER, OUT last_user_id BIGINT) AS
+$$
+DECLARE
+    users BIGINT[];
+BEGIN
+    SELECT array_agg(user_id ORDER BY user_id)
+    INTO users
+    FROM (SELECT user_id
+          FROM ((SELECT DISTINCT user_id FROM tasks WHERE user_id > after_user_id ORDER BY user_id LIMIT max_users)
+                UNION
+                (SELECT DISTINCT user_id FROM tasks_archive WHERE user_id > after_user_id ORDER BY user_id LIMIT max_users)
+                UNION
+                (SELECT DISTINCT user_id FROM task_counters WHERE user_id > after_user_id ORDER BY user_id LIMIT max_users)) candidates
+          ORDER BY user_id
+          LIMIT max_users) batch;
+
+    IF users IS NULL THEN
+        repaired := 0;
+        RETURN;
+    END IF;
+    last_user_id := users[array_length(users, 1)];
+
+    PERFORM 1 FROM task_counters WHERE user_id = ANY (users) FOR UPDATE;
+
+    WITH actual AS (SELECT user_id,
+                           completed,
+                           coalesce(priority, '') AS priority,
+                           coalesce(category, '') AS category,
+                           count(*)               AS task_count
+                    FROM (SELECT user_id, completed, priority, category
+                          FROM tasks
+                          WHERE user_id = ANY (users) AND NOT is_deleted
+                          UNION ALL
+                          SELECT user_id, completed, priority, category
+                          FROM tasks_archive
+                          WHERE user_id = ANY (users) AND NOT is_deleted) live
+                    GROUP BY 1, 2, 3, 4),
+         drifted AS (SELECT user_id, completed, priority, category, coalesce(a.task_count, 0) AS task_count
+                     FROM actual a
+                              FULL JOIN (SELECT * FROM task_counters WHERE user_id = ANY (users)) c
+                                        USING (user_id, completed, priority, category)
+                     WHERE coalesce(a.task_count, 0) <> coalesce(c.task_count, 0)),
+         upserted AS (
+             INSERT INTO task_counters (user_id, completed, priority, category, task_count)
+                 SELECT user_id, completed, priority, category, task_count FROM drifted
+                 ON CONFLICT (user_id, completed, priority, category)
+                     DO UPDATE SET task_count = EXCLUDED.task_count
+                 RETURNING 1)
+    SELECT count(*)
+    INTO repaired
+    FROM upserted;
+
+    DELETE FROM task_counters WHERE user_id = ANY (users) AND task_count = 0;
+END;
+$$ LANGUAGE plpgsql;
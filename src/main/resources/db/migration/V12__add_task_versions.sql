@@ -0,0 +1,86 @@
+-- Per-user version behind the task ETag, bumped by the counters trigger on every write to a user's tasks,
+-- archive moves included. Unlike COUNT(*) and MAX(updated_at) it moves on every committed write, however the
+-- writes overlap and whatever their timestamps. Users without a row are at version 0.
+CREATE TABLE task_versions
+(
+    user_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- Same as V2, but the counters are only touched when the bucket changes and the user's version moves on every call.
+CREATE OR REPLACE FUNCTION tasks_maintain_counters() RETURNS TRIGGER AS
+$$
+DECLARE
+    bucket_changed BOOLEAN := TG_OP <> 'UPDATE';
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        bucket_changed := (OLD.user_id, OLD.completed, OLD.priority, OLD.category, OLD.is_deleted)
+            IS DISTINCT FROM (NEW.user_id, NEW.completed, NEW.priority, NEW.category, NEW.is_deleted);
+    END IF;
+
+    IF bucket_changed AND TG_OP IN ('UPDATE', 'DELETE') AND NOT OLD.is_deleted THEN
+        UPDATE task_counters
+        SET task_count = task_count - 1
+        WHERE user_id = OLD.user_id
+          AND completed = OLD.completed
+          AND priority = coalesce(OLD.priority, '')
+          AND category = coalesce(OLD.category, '');
+    END IF;
+
+    IF bucket_changed AND TG_OP IN ('INSERT', 'UPDATE') AND NOT NEW.is_deleted THEN
+        INSERT INTO task_counters (user_id, completed, priority, category, task_count)
+        VALUES (NEW.user_id, NEW.completed, coalesce(NEW.priority, ''), coalesce(NEW.category, ''), 1)
+        ON CONFLICT (user_id, completed, priority, category)
+            DO UPDATE SET task_count = task_counters.task_count + 1;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO task_versions (user_id, version)
+        VALUES (OLD.user_id, 1)
+        ON CONFLICT (user_id) DO UPDATE SET version = task_versions.version + 1;
+    END IF;
+
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.user_id <> OLD.user_id) THEN
+        INSERT INTO task_versions (user_id, version)
+        VALUES (NEW.user_id, 1)
+        ON CONFLICT (user_id) DO UPDATE SET version = task_versions.version + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER tasks_counters_update ON tasks;
+
+CREATE TRIGGER tasks_counters_update
+    AFTER UPDATE
+    ON tasks
+    FOR EACH ROW
+    WHEN (OLD.* IS DISTINCT FROM NEW.*)
+EXECUTE FUNCTION tasks_maintain_counters();
+
+-- A pending move (see V8) recreates tasks_counters_update with the V2 condition on swap. Wrap the swap so the
+-- partitioned table gets the trigger above instead; TaskPartitionMover still calls and drops tasks_partitioning_swap().
+DO
+$$
+    BEGIN
+        IF to_regprocedure('tasks_partitioning_swap()') IS NOT NULL THEN
+            ALTER FUNCTION tasks_partitioning_swap() RENAME TO tasks_partitioning_swap_v8;
+            CREATE FUNCTION tasks_partitioning_swap() RETURNS VOID AS
+            $swap$
+            BEGIN
+                PERFORM tasks_partitioning_swap_v8();
+                DROP FUNCTION tasks_partitioning_swap_v8();
+
+                DROP TRIGGER tasks_counters_update ON tasks;
+                CREATE TRIGGER tasks_counters_update
+                    AFTER UPDATE
+                    ON tasks
+                    FOR EACH ROW
+                    WHEN (OLD.* IS DISTINCT FROM NEW.*)
+                EXECUTE FUNCTION tasks_maintain_counters();
+            END;
+            $swap$ LANGUAGE plpgsql;
+        END IF;
+    END
+$$;
@@ -0,0 +1,18 @@
+CREATE TABLE tasks
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    completed   BOOLEAN      NOT NULL DEFAULT FALSE,
+    user_id     BIGINT       NOT NULL,
+    priority    VARCHAR(255) CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH')),
+    due_date    TIMESTAMP(6),
+    category    VARCHAR(255),
+    is_deleted  BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE INDEX idx_user_id ON tasks (user_id);
+CREATE INDEX idx_priority ON tasks (priority);
+CREATE INDEX idx_is_deleted ON tasks (is_deleted);
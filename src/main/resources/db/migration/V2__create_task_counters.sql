@@ -0,0 +1,85 @@
+-- Per-user task counts, one row per (completed, priority, category) bucket of live tasks.
+-- Missing priority/category are stored as '' so the bucket can be part of the primary key.
+CREATE TABLE task_counters
+(
+    user_id    BIGINT       NOT NULL,
+    completed  BOOLEAN      NOT NULL,
+    priority   VARCHAR(255) NOT NULL,
+    category   VARCHAR(255) NOT NULL,
+    task_count BIGINT       NOT NULL,
+    PRIMARY KEY (user_id, completed, priority, category)
+);
+
+CREATE FUNCTION tasks_maintain_counters() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND NOT OLD.is_deleted THEN
+        UPDATE task_counters
+        SET task_count = task_count - 1
+        WHERE user_id = OLD.user_id
+          AND completed = OLD.completed
+          AND priority = coalesce(OLD.priority, '')
+          AND category = coalesce(OLD.category, '');
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NOT NEW.is_deleted THEN
+        INSERT INTO task_counters (user_id, completed, priority, category, task_count)
+        VALUES (NEW.user_id, NEW.completed, coalesce(NEW.priority, ''), coalesce(NEW.category, ''), 1)
+        ON CONFLICT (user_id, completed, priority, category)
+            DO UPDATE SET task_count = task_counters.task_count + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tasks_counters_insert_delete
+    AFTER INSERT OR DELETE
+    ON tasks
+    FOR EACH ROW
+EXECUTE FUNCTION tasks_maintain_counters();
+
+CREATE TRIGGER tasks_counters_update
+    AFTER UPDATE
+    ON tasks
+    FOR EACH ROW
+    WHEN ((OLD.user_id, OLD.completed, OLD.priority, OLD.category, OLD.is_deleted)
+        IS DISTINCT FROM (NEW.user_id, NEW.completed, NEW.priority, NEW.category, NEW.is_deleted))
+EXECUTE FUNCTION tasks_maintain_counters();
+
+-- Rebuilds drifted buckets from the tasks table and returns how many were repaired.
+-- The EXCLUSIVE lock holds back concurrent counter writes (and so task writes) until the rebuild commits.
+CREATE FUNCTION reconcile_task_counters() RETURNS INTEGER AS
+$$
+DECLARE
+    repaired INTEGER;
+BEGIN
+    LOCK TABLE task_counters IN EXCLUSIVE MODE;
+
+    WITH actual AS (SELECT user_id,
+                           completed,
+                           coalesce(priority, '') AS priority,
+                           coalesce(category, '') AS category,
+                           count(*)               AS task_count
+                    FROM tasks
+                    WHERE NOT is_deleted
+                    GROUP BY 1, 2, 3, 4),
+         drifted AS (SELECT user_id, completed, priority, category, coalesce(a.task_count, 0) AS task_count
+                     FROM actual a
+                              FULL JOIN task_counters c USING (user_id, completed, priority, category)
+                     WHERE coalesce(a.task_count, 0) <> coalesce(c.task_count, 0)),
+         upserted AS (
+             INSERT INTO task_counters (user_id, completed, priority, category, task_count)
+                 SELECT user_id, completed, priority, category, task_count FROM drifted
+                 ON CONFLICT (user_id, completed, priority, category)
+                     DO UPDATE SET task_count = EXCLUDED.task_count
+                 RETURNING 1)
+    SELECT count(*)
+    INTO repaired
+    FROM upserted;
+
+    DELETE FROM task_counters WHERE task_count = 0;
+
+    RETURN repaired;
+END;
+$$ LANGUAGE plpgsql;
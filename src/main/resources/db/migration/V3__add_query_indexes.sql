@@ -0,0 +1,15 @@
+-- Every query filters live rows of one user, so the single-column indexes are replaced by
+-- partial composite indexes shaped after TaskRepository and TaskSpecification.
+DROP INDEX idx_user_id;
+DROP INDEX idx_priority;
+DROP INDEX idx_is_deleted;
+
+-- findAllByUserId (offset, keyset and streaming) and scrollSearchTasks ordering.
+CREATE INDEX idx_tasks_user_created ON tasks (user_id, created_at DESC, id DESC) WHERE is_deleted = false;
+
+-- findOverdueTasks and countOverdueTasks.
+CREATE INDEX idx_tasks_user_due_date ON tasks (user_id, due_date) WHERE is_deleted = false AND completed = false;
+
+-- searchTasks priority and category filters.
+CREATE INDEX idx_tasks_user_priority ON tasks (user_id, priority) WHERE is_deleted = false;
+CREATE INDEX idx_tasks_user_category ON tasks (user_id, category) WHERE is_deleted = false;
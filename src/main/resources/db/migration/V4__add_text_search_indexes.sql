@@ -0,0 +1,9 @@
+-- Trigram GIN indexes serve lower(column) LIKE '%term%', which no B-tree can.
+-- btree_gin lets user_id sit in the same index so per-user searches stay selective.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX idx_tasks_user_title_trgm ON tasks USING gin (user_id, lower(title) gin_trgm_ops)
+    WHERE is_deleted = false;
+CREATE INDEX idx_tasks_user_description_trgm ON tasks USING gin (user_id, lower(description) gin_trgm_ops)
+    WHERE is_deleted = false;
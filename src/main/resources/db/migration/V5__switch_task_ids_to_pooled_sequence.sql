@@ -0,0 +1,8 @@
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Hibernate's pooled optimizer reserves the block (value - 49 .. value) per call,
+-- so the first value handed out must sit one full block above existing ids.
+CREATE SEQUENCE tasks_id_seq INCREMENT BY 50 OWNED BY tasks.id;
+SELECT setval('tasks_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM tasks;
+
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_id_seq');
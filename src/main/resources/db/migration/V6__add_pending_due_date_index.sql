@@ -0,0 +1,4 @@
+-- The overdue scheduler reads upcoming deadlines of all users by time range, which the per-user
+-- idx_tasks_user_due_date cannot serve. Only open tasks with a due date can become overdue.
+CREATE INDEX idx_tasks_pending_due_date ON tasks (due_date)
+    WHERE is_deleted = false AND completed = false AND due_date IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Delta sync reads every row of a user changed after a watermark, tombstones included,
+-- in (updated_at, id) order. Soft deletes now record when they happened.
+ALTER TABLE tasks ADD COLUMN deleted_at TIMESTAMP(6);
+
+UPDATE tasks SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE tasks SET deleted_at = updated_at WHERE is_deleted = true;
+
+CREATE INDEX idx_tasks_user_updated ON tasks (user_id, updated_at, id);
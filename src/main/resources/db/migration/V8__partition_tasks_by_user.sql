@@ -0,0 +1,211 @@
+-- Every request reads and writes the tasks of one user, so tasks are hash-partitioned by user_id:
+-- a statement that filters on user_id is pruned to one partition and its much smaller indexes.
+-- The partitioned table is built next to the live one and filled while the application runs:
+--   tasks_partitioning_start()       mirrors every later write on tasks into tasks_partitioned,
+--   tasks_partitioning_copy(from,to) copies one id range of existing rows,
+--   tasks_partitioning_index_statements(concurrently) lists the statements building the secondary indexes,
+--   tasks_partitioning_swap()        renames the tables under a short exclusive lock.
+-- TaskPartitionMover drives these steps in batches and keeps the old table as tasks_unpartitioned
+-- until it is dropped by hand. Small tables (development, tests) are moved right here.
+CREATE TABLE tasks_partitioned
+(
+    LIKE tasks INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    PRIMARY KEY (user_id, id)
+) PARTITION BY HASH (user_id);
+
+DO
+$$
+    BEGIN
+        FOR remainder IN 0..15
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF tasks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                               'tasks_p' || lpad(remainder::TEXT, 2, '0'), remainder);
+            END LOOP;
+    END
+$$;
+
+-- Secondary indexes are built once the rows are copied: sorted builds are far faster and smaller than
+-- maintaining ten indexes per partition row by row. Each keeps its name: the parent gets a _partitioned
+-- suffix until the swap, and a partition's index adds the partition suffix, e.g. idx_tasks_user_created_p03.
+CREATE TABLE tasks_partitioning_indexes
+(
+    index_name TEXT PRIMARY KEY,
+    definition TEXT NOT NULL
+);
+
+INSERT INTO tasks_partitioning_indexes (index_name, definition)
+VALUES ('idx_tasks_user_created', '(user_id, created_at DESC, id DESC) WHERE is_deleted = false'),
+       ('idx_tasks_user_due_date', '(user_id, due_date) WHERE is_deleted = false AND completed = false'),
+       ('idx_tasks_user_priority', '(user_id, priority) WHERE is_deleted = false'),
+       ('idx_tasks_user_category', '(user_id, category) WHERE is_deleted = false'),
+       ('idx_tasks_user_title_trgm', 'USING gin (user_id, lower(title) gin_trgm_ops) WHERE is_deleted = false'),
+       ('idx_tasks_user_description_trgm',
+        'USING gin (user_id, lower(description) gin_trgm_ops) WHERE is_deleted = false'),
+       ('idx_tasks_pending_due_date', '(due_date) WHERE is_deleted = false AND completed = false AND due_date IS NOT NULL'),
+       ('idx_tasks_user_updated', '(user_id, updated_at, id)'),
+       -- The primary key now leads with user_id. Lookups by id alone only remain on paths that tell a
+       -- missing task from another user's task, and this index keeps those from scanning every partition.
+       ('idx_tasks_id', '(id)');
+
+-- Statements that build the secondary indexes in order: every partition's index first (CONCURRENTLY
+-- keeps the mirrored writes flowing), then the parent index they are attached to. All are repeatable.
+CREATE FUNCTION tasks_partitioning_index_statements(build_concurrently BOOLEAN) RETURNS SETOF TEXT AS
+$$
+SELECT statement
+FROM (SELECT 1 AS step, i.index_name, format('CREATE INDEX %s IF NOT EXISTS %I ON %I %s',
+                                             CASE WHEN build_concurrently THEN 'CONCURRENTLY' ELSE '' END,
+                                             i.index_name || substring(c.relname FROM '_p[0-9]+$'), c.relname,
+                                             i.definition) AS statement
+      FROM tasks_partitioning_indexes i
+               CROSS JOIN pg_inherits p
+               JOIN pg_class c ON c.oid = p.inhrelid
+      WHERE p.inhparent = 'tasks_partitioned'::REGCLASS
+      UNION ALL
+      SELECT 2, i.index_name, format('CREATE INDEX IF NOT EXISTS %I ON ONLY tasks_partitioned %s',
+                                     i.index_name || '_partitioned', i.definition)
+      FROM tasks_partitioning_indexes i
+      UNION ALL
+      SELECT 3, i.index_name, format('ALTER INDEX %I ATTACH PARTITION %I', i.index_name || '_partitioned',
+                                     i.index_name || substring(c.relname FROM '_p[0-9]+$'))
+      FROM tasks_partitioning_indexes i
+               CROSS JOIN pg_inherits p
+               JOIN pg_class c ON c.oid = p.inhrelid
+      WHERE p.inhparent = 'tasks_partitioned'::REGCLASS) AS statements
+ORDER BY step, index_name, statement;
+$$ LANGUAGE sql;
+
+CREATE FUNCTION tasks_partitioning_mirror() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM tasks_partitioned WHERE user_id = OLD.user_id AND id = OLD.id;
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'UPDATE' AND OLD.user_id <> NEW.user_id THEN
+        DELETE FROM tasks_partitioned WHERE user_id = OLD.user_id AND id = OLD.id;
+    END IF;
+
+    INSERT INTO tasks_partitioned
+    SELECT NEW.*
+    ON CONFLICT (user_id, id) DO UPDATE
+        SET title       = EXCLUDED.title,
+            description = EXCLUDED.description,
+            completed   = EXCLUDED.completed,
+            priority    = EXCLUDED.priority,
+            due_date    = EXCLUDED.due_date,
+            category    = EXCLUDED.category,
+            is_deleted  = EXCLUDED.is_deleted,
+            created_at  = EXCLUDED.created_at,
+            updated_at  = EXCLUDED.updated_at,
+            deleted_at  = EXCLUDED.deleted_at;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creating the trigger waits for in-flight writers, so every write committed after this returns
+-- is mirrored and every earlier one is visible to the copy.
+CREATE FUNCTION tasks_partitioning_start() RETURNS VOID AS
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgrelid = 'tasks'::REGCLASS AND tgname = 'tasks_partitioning_mirror') THEN
+        CREATE TRIGGER tasks_partitioning_mirror
+            AFTER INSERT OR UPDATE OR DELETE
+            ON tasks
+            FOR EACH ROW
+        EXECUTE FUNCTION tasks_partitioning_mirror();
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- FOR SHARE makes a concurrent update or delete of a row being copied wait for the batch to commit,
+-- so its mirrored write lands after the copied version instead of being overtaken by it.
+-- Rows the mirror already wrote are newer than the copy and win the conflict.
+CREATE FUNCTION tasks_partitioning_copy(from_id BIGINT, to_id BIGINT) RETURNS BIGINT AS
+$$
+DECLARE
+    copied BIGINT;
+BEGIN
+    INSERT INTO tasks_partitioned
+    SELECT *
+    FROM tasks
+    WHERE id >= from_id
+      AND id < to_id
+    FOR SHARE
+    ON CONFLICT (user_id, id) DO NOTHING;
+    GET DIAGNOSTICS copied = ROW_COUNT;
+    RETURN copied;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION tasks_partitioning_swap() RETURNS VOID AS
+$$
+DECLARE
+    index_name TEXT;
+BEGIN
+    LOCK TABLE tasks, tasks_partitioned IN ACCESS EXCLUSIVE MODE;
+    IF EXISTS (SELECT 1 FROM pg_index WHERE indrelid = 'tasks_partitioned'::REGCLASS AND NOT indisvalid)
+        OR (SELECT count(*) FROM pg_index WHERE indrelid = 'tasks_partitioned'::REGCLASS)
+               <= (SELECT count(*) FROM tasks_partitioning_indexes) THEN
+        RAISE EXCEPTION 'Indexes of tasks_partitioned are not built yet';
+    END IF;
+
+    DROP TRIGGER tasks_partitioning_mirror ON tasks;
+    DROP TRIGGER tasks_counters_insert_delete ON tasks;
+    DROP TRIGGER tasks_counters_update ON tasks;
+
+    ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+    ALTER TABLE tasks_unpartitioned RENAME CONSTRAINT tasks_pkey TO tasks_unpartitioned_pkey;
+    ALTER TABLE tasks_partitioned RENAME TO tasks;
+    ALTER TABLE tasks RENAME CONSTRAINT tasks_partitioned_pkey TO tasks_pkey;
+
+    FOR index_name IN SELECT i.index_name FROM tasks_partitioning_indexes i
+        LOOP
+            IF to_regclass(index_name) IS NOT NULL THEN
+                EXECUTE format('ALTER INDEX %I RENAME TO %I', index_name, index_name || '_unpartitioned');
+            END IF;
+            EXECUTE format('ALTER INDEX %I RENAME TO %I', index_name || '_partitioned', index_name);
+        END LOOP;
+
+    ALTER SEQUENCE tasks_id_seq OWNED BY tasks.id;
+
+    CREATE TRIGGER tasks_counters_insert_delete
+        AFTER INSERT OR DELETE
+        ON tasks
+        FOR EACH ROW
+    EXECUTE FUNCTION tasks_maintain_counters();
+
+    CREATE TRIGGER tasks_counters_update
+        AFTER UPDATE
+        ON tasks
+        FOR EACH ROW
+        WHEN ((OLD.user_id, OLD.completed, OLD.priority, OLD.category, OLD.is_deleted)
+            IS DISTINCT FROM (NEW.user_id, NEW.completed, NEW.priority, NEW.category, NEW.is_deleted))
+    EXECUTE FUNCTION tasks_maintain_counters();
+
+    DROP FUNCTION tasks_partitioning_start();
+    DROP FUNCTION tasks_partitioning_index_statements(BOOLEAN);
+    DROP TABLE tasks_partitioning_indexes;
+    DROP FUNCTION tasks_partitioning_copy(BIGINT, BIGINT);
+    DROP FUNCTION tasks_partitioning_mirror();
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moving up to partitionInlineRowLimit rows inside this migration is cheaper than running the mover.
+DO
+$$
+    DECLARE
+        statement TEXT;
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM tasks OFFSET ${partitionInlineRowLimit}) THEN
+            PERFORM tasks_partitioning_start();
+            PERFORM tasks_partitioning_copy(0, 9223372036854775807);
+            FOR statement IN SELECT tasks_partitioning_index_statements(false)
+                LOOP
+                    EXECUTE statement;
+                END LOOP;
+            PERFORM tasks_partitioning_swap();
+            DROP FUNCTION tasks_partitioning_swap();
+            DROP TABLE tasks_unpartitioned;
+        END IF;
+    END
+$$;
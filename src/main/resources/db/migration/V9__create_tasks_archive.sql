@@ -0,0 +1,28 @@
+-- Soft-deleted tasks past the tombstone retention and tasks completed long ago are moved out of the hot
+-- tasks table by TaskArchiver. Archived rows keep their id and columns plus the time they were moved;
+-- they are only read on request (GET /tasks/archived) and by sync, which reports them as tombstones.
+CREATE TABLE tasks_archive
+(
+    LIKE tasks INCLUDING CONSTRAINTS,
+    archived_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, id)
+);
+
+CREATE INDEX idx_tasks_archive_user_created ON tasks_archive (user_id, created_at DESC, id DESC) WHERE is_deleted = false;
+CREATE INDEX idx_tasks_archive_user_archived ON tasks_archive (user_id, archived_at, id);
+
+-- The archiver's candidate scans. Both stay small: they only cover rows that are about to be archived.
+CREATE INDEX idx_tasks_deleted_at ON tasks (deleted_at) WHERE is_deleted = true;
+CREATE INDEX idx_tasks_completed_updated ON tasks (updated_at) WHERE completed = true AND is_deleted = false;
+
+-- A pending partitioning move (V8) builds the same indexes on the partitioned table before the swap.
+DO
+$$
+    BEGIN
+        IF to_regclass('tasks_partitioning_indexes') IS NOT NULL THEN
+            INSERT INTO tasks_partitioning_indexes (index_name, definition)
+            VALUES ('idx_tasks_deleted_at', '(deleted_at) WHERE is_deleted = true'),
+                   ('idx_tasks_completed_updated', '(updated_at) WHERE completed = true AND is_deleted = false');
+        END IF;
+    END
+$$;
@@ -1,13 +1,51 @@
 package pl.kwec.mymanagerplannerservice;
 
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
 class MymanagerPlannerServiceApplicationTests {
 
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void scheduledJobsShouldNotShareOneThread() {
+        assertEquals(4, taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize());
+    }
+
+    @Test
+    void onlyBinaryPagesShouldUseTheSlimEnvelope() throws Exception {
+        final PageImpl<String> page = new PageImpl<>(List.of("task"), PageRequest.of(0, 20), 1);
+
+        assertTrue(objectMapper.valueToTree(page).has("pageable"));
+        final ObjectMapper smileMapper = smileHttpMessageConverter.getObjectMapper();
+        assertFalse(smileMapper.readTree(smileMapper.writeValueAsBytes(page)).has("pageable"));
+    }
+
 }
@@ -0,0 +1,70 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConnectionLimitingDataSource - permits")
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("should hold a permit until the connection is closed, once")
+    void shouldReleasePermitOnClose() throws SQLException {
+        final Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+
+        final Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        connection.close();
+        connection.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(physical, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("should time out when every permit is taken")
+    void shouldTimeOutWhenExhausted() throws SQLException {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("should return the permit when the pool fails to hand out a connection")
+    void shouldReleasePermitWhenTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+}
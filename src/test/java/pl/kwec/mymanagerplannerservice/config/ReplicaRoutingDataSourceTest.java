@@ -0,0 +1,153 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import pl.kwec.mymanagerplannerservice.filter.UserIdAuthFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DisplayName("ReplicaRoutingDataSource - primary and replica routing")
+class ReplicaRoutingDataSourceTest {
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+
+    private MeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private double routedToPrimaryBefore;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        primary = EmbeddedPostgres.builder().start();
+        replica = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        primary.close();
+        replica.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        startNode();
+        routedToPrimaryBefore = routed("primary", "read-write");
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("should send read-only transactions to the replica and everything else to the primary")
+    void shouldRouteByTransactionReadOnlyFlag() {
+        assertEquals(replica.getPort(), portIn(readOnly));
+        assertEquals(primary.getPort(), portIn(readWrite));
+        assertEquals(primary.getPort(), serverPort());
+
+        assertEquals(1, routed("replica", "read-only"));
+        assertEquals(2, routed("primary", "read-write") - routedToPrimaryBefore);
+    }
+
+    @Test
+    @DisplayName("should keep a user on the primary after their write commits, and only that user")
+    void shouldReadYourWrites() {
+        actAs(1L);
+        assertEquals(replica.getPort(), portIn(readOnly));
+        portIn(readWrite);
+        assertEquals(primary.getPort(), portIn(readOnly));
+
+        actAs(2L);
+        assertEquals(replica.getPort(), portIn(readOnly));
+        readWrite.executeWithoutResult(status -> {
+            serverPort();
+            status.setRollbackOnly();
+        });
+        assertEquals(replica.getPort(), portIn(readOnly));
+
+        assertEquals(1, routed("primary", "read-your-writes"));
+        assertEquals(3, routed("replica", "read-only"));
+    }
+
+    @Test
+    @DisplayName("should carry the write to other nodes in a cookie that is only trusted within the window")
+    void shouldReadYourWritesOnAnotherNode() {
+        final MockHttpServletResponse writeResponse = actAs(1L);
+        portIn(readWrite);
+        final Cookie lastWrite = writeResponse.getCookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE);
+        assertNotNull(lastWrite);
+        assertEquals(60, lastWrite.getMaxAge());
+
+        startNode();
+        actAs(1L);
+        assertEquals(replica.getPort(), portIn(readOnly));
+        actAs(1L, lastWrite);
+        assertEquals(primary.getPort(), portIn(readOnly));
+        actAs(1L, new Cookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE,
+                Long.toString(System.currentTimeMillis() + Duration.ofDays(1).toMillis())));
+        assertEquals(replica.getPort(), portIn(readOnly));
+    }
+
+    /**
+     * Replaces the routing data source, as if the next request reached another node.
+     */
+    private void startNode() {
+        meterRegistry = new SimpleMeterRegistry();
+        final LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primary.getPostgresDatabase(), replica.getPostgresDatabase(), Duration.ofMinutes(1), meterRegistry));
+        final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // The lazy proxy borrows one connection on first use to learn the pool's defaults.
+        serverPort();
+    }
+
+    private int portIn(final TransactionTemplate transaction) {
+        final Integer port = transaction.execute(status -> serverPort());
+        return port == null ? -1 : port;
+    }
+
+    private int serverPort() {
+        return jdbcTemplate.queryForObject("SELECT current_setting('port')::int", Integer.class);
+    }
+
+    private double routed(final String pool, final String reason) {
+        return meterRegistry.get("planner.datasource.routed").tag("pool", pool).tag("reason", reason).counter().count();
+    }
+
+    private static MockHttpServletResponse actAs(final long userId, final Cookie... cookies) {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(UserIdAuthFilter.USER_ID_ATTRIBUTE, userId);
+        if (cookies.length > 0) {
+            request.setCookies(cookies);
+        }
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+}
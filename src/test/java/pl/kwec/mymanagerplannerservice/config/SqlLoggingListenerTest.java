@@ -0,0 +1,108 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.core.RepositoryInformation;
+import pl.kwec.mymanagerplannerservice.task.TaskRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SqlLoggingListener - slow and sampled SQL logs")
+class SqlLoggingListenerTest {
+
+    private static final List<QueryInfo> QUERY = List.of(new QueryInfo("select t.id from tasks t where t.user_id=?"));
+
+    private final ListAppender<ILoggingEvent> slowEvents = new ListAppender<>();
+    private final ListAppender<ILoggingEvent> sampledEvents = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        attach(SqlLoggingListener.SLOW_LOGGER_NAME, slowEvents);
+        attach(SqlLoggingListener.SAMPLED_LOGGER_NAME, sampledEvents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger(SqlLoggingListener.SLOW_LOGGER_NAME).detachAppender(slowEvents);
+        logger(SqlLoggingListener.SAMPLED_LOGGER_NAME).detachAppender(sampledEvents);
+    }
+
+    @Test
+    @DisplayName("should log a slow statement with the repository method that issued it")
+    void shouldNameRepositoryMethodOfSlowStatement() throws Throwable {
+        final SqlLoggingListener listener = new SqlLoggingListener(Duration.ofMillis(100), 0.0);
+        final RepositoryInformation repositoryInformation = mock(RepositoryInformation.class);
+        doReturn(TaskRepository.class).when(repositoryInformation).getRepositoryInterface();
+        final MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(TaskRepository.class.getMethod("countOverdueTasks", Long.class,
+                java.time.LocalDateTime.class));
+        when(invocation.proceed()).thenAnswer(ignored -> {
+            listener.afterQuery(execution(250), QUERY);
+            return null;
+        });
+
+        new RepositoryMethodTracker(repositoryInformation).invoke(invocation);
+
+        assertEquals(1, slowEvents.list.size());
+        final String message = slowEvents.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("TaskRepository.countOverdueTasks"), message);
+        assertTrue(message.contains("250 ms"), message);
+    }
+
+    @Test
+    @DisplayName("should not log fast statements when sampling is disabled")
+    void shouldSkipFastStatementsWithoutSampling() {
+        new SqlLoggingListener(Duration.ofMillis(100), 0.0).afterQuery(execution(5), QUERY);
+
+        assertTrue(slowEvents.list.isEmpty());
+        assertTrue(sampledEvents.list.isEmpty());
+    }
+
+    @Test
+    @DisplayName("should log every fast statement to the sampled log at a rate of 1")
+    void shouldSampleFastStatements() {
+        new SqlLoggingListener(Duration.ofMillis(100), 1.0).afterQuery(execution(5), QUERY);
+
+        assertTrue(slowEvents.list.isEmpty());
+        assertEquals(1, sampledEvents.list.size());
+        assertTrue(sampledEvents.list.get(0).getFormattedMessage().contains("<no repository method>"));
+    }
+
+    @Test
+    @DisplayName("should reject a sample rate outside 0..1")
+    void shouldRejectInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class, () -> new SqlLoggingListener(Duration.ofMillis(100), 1.5));
+    }
+
+    private static ExecutionInfo execution(final long elapsedMillis) {
+        final ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        return executionInfo;
+    }
+
+    private static void attach(final String loggerName, final ListAppender<ILoggingEvent> appender) {
+        appender.start();
+        logger(loggerName).addAppender(appender);
+    }
+
+    private static Logger logger(final String name) {
+        return (Logger) LoggerFactory.getLogger(name);
+    }
+}
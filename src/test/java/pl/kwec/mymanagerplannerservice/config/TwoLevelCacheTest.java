@@ -0,0 +1,166 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import pl.kwec.mymanagerplannerservice.task.Task;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskStatisticsResponse;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TwoLevelCache - near caches over a shared Redis tier")
+class TwoLevelCacheTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static RedisServer redisServer;
+    private static int redisPort;
+
+    private final List<Instance> instances = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flushRedis() {
+        final Instance instance = new Instance();
+        instance.redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        instance.close();
+    }
+
+    @AfterEach
+    void stopInstances() {
+        instances.forEach(Instance::close);
+    }
+
+    @Test
+    @DisplayName("should share entries under a per-user key and drop other instances' near copies on eviction")
+    void shouldInvalidateNearCachesOfOtherInstances() {
+        final Instance first = start();
+        final Instance second = start();
+        final TaskStatisticsResponse statistics = new TaskStatisticsResponse(3, 1, 4, 1, 75.0,
+                Map.of(Task.Priority.HIGH, 4L), Map.of("work", 4L));
+
+        first.statistics().put(42L, statistics);
+
+        assertTrue(Boolean.TRUE.equals(first.redisTemplate.hasKey("planner:taskStatistics:user:42")));
+        final TaskStatisticsResponse shared = second.statistics().get(42L, TaskStatisticsResponse.class);
+        assertNotNull(shared);
+        assertEquals(75.0, shared.getCompletionPercentage());
+        assertEquals(Map.of(Task.Priority.HIGH, 4L), shared.getCountByPriority());
+        assertNotNull(second.nearStatistics().get("42"));
+
+        first.statistics().evict(42L);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertNull(second.nearStatistics().get("42")));
+        assertNull(second.statistics().get(42L));
+    }
+
+    @Test
+    @DisplayName("should round-trip lists of tasks through the shared tier")
+    void shouldShareTaskLists() {
+        final Instance first = start();
+        final Instance second = start();
+        final LocalDateTime dueDate = LocalDateTime.of(2026, 1, 1, 10, 0);
+        final List<TaskResponse> overdue = new ArrayList<>(List.of(TaskResponse.builder()
+                .id(7L).title("overdue").priority(Task.Priority.LOW).dueDate(dueDate).build()));
+
+        first.cacheManager.getCache(CacheConfig.OVERDUE_TASKS_CACHE).put(1L, overdue);
+
+        @SuppressWarnings("unchecked")
+        final List<TaskResponse> shared = (List<TaskResponse>) second.cacheManager
+                .getCache(CacheConfig.OVERDUE_TASKS_CACHE).get(1L, List.class);
+        assertNotNull(shared);
+        assertEquals(7L, shared.get(0).getId());
+        assertEquals(dueDate, shared.get(0).getDueDate());
+    }
+
+    private Instance start() {
+        final Instance instance = new Instance();
+        instances.add(instance);
+        return instance;
+    }
+
+    private static final class Instance {
+
+        private final LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("localhost", redisPort);
+        private final RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+        private final StringRedisTemplate redisTemplate;
+        private final TwoLevelCacheManager cacheManager;
+
+        private Instance() {
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            redisTemplate = new StringRedisTemplate(connectionFactory);
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+
+            final SharedCacheConfig config = new SharedCacheConfig();
+            final RedisCacheManager shared = config.sharedCacheManager(connectionFactory, OBJECT_MAPPER, "planner:",
+                    Duration.ofMinutes(1));
+            shared.afterPropertiesSet();
+            final CaffeineCacheManager near = new CaffeineCacheManager();
+            near.setCaffeine(Caffeine.newBuilder().maximumSize(100));
+            near.setCacheNames(CacheConfig.CACHE_NAMES);
+            cacheManager = new TwoLevelCacheManager(near, shared, config.cacheInvalidationBus(redisTemplate,
+                    listenerContainer, "planner:cache:invalidations", OBJECT_MAPPER));
+        }
+
+        private Cache statistics() {
+            return cacheManager.getCache(CacheConfig.TASK_STATISTICS_CACHE);
+        }
+
+        private Cache nearStatistics() {
+            return ((TwoLevelCache) statistics()).getNearCache();
+        }
+
+        private void close() {
+            listenerContainer.stop();
+            connectionFactory.destroy();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package pl.kwec.mymanagerplannerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("VirtualThreadConfig - connection limiter in front of Hikari")
+class VirtualThreadConfigTest {
+
+    @ParameterizedTest
+    @CsvSource({"30000, 22500, 7500", "600, 350, 250", "250, 0, 250"})
+    @DisplayName("should split the pool's connection timeout between the permit wait and the pool wait")
+    void shouldSplitOneTimeoutBudget(final long connectionTimeout, final long permitWait, final long poolWait) {
+        try (HikariDataSource hikari = new HikariDataSource()) {
+            hikari.setConnectionTimeout(connectionTimeout);
+
+            final ConnectionLimitingDataSource limiter = (ConnectionLimitingDataSource) VirtualThreadConfig
+                    .connectionLimitingDataSourcePostProcessor()
+                    .postProcessAfterInitialization(hikari, "dataSource");
+
+            assertEquals(Duration.ofMillis(permitWait), limiter.getAcquireTimeout());
+            assertEquals(poolWait, hikari.getConnectionTimeout());
+            assertEquals(connectionTimeout, permitWait + poolWait);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package pl.kwec.mymanagerplannerservice.filter;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.never;
@@ -26,6 +28,8 @@ class UserIdAuthFilterTest {
 
     private UserIdAuthFilter filter;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @Mock
     private HttpServletRequest request;
 
@@ -37,7 +41,8 @@ class UserIdAuthFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new UserIdAuthFilter();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new UserIdAuthFilter(meterRegistry);
     }
 
     @Test
@@ -103,4 +108,18 @@ class UserIdAuthFilterTest {
 
         verify(filterChain, never()).doFilter(request, response);
     }
+
+    @Test
+    @DisplayName("should time each request under its outcome tag")
+    void shouldRecordOutcomeTimers() throws ServletException, IOException {
+        when(request.getHeader("X-User-Id")).thenReturn("42", null, "invalid");
+
+        filter.doFilterInternal(request, response, filterChain);
+        filter.doFilterInternal(request, response, filterChain);
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertEquals(1, meterRegistry.get("planner.auth.filter").tag("outcome", "authenticated").timer().count());
+        assertEquals(1, meterRegistry.get("planner.auth.filter").tag("outcome", "anonymous").timer().count());
+        assertEquals(1, meterRegistry.get("planner.auth.filter").tag("outcome", "rejected").timer().count());
+    }
 }
@@ -0,0 +1,87 @@
+package pl.kwec.mymanagerplannerservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and status counts for one load-test run. Latencies are
+ * recorded in nanoseconds and reported in milliseconds.
+ */
+class LatencyReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    void record(final String endpoint, final int status, final long latencyNanos) {
+        histograms.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(3)).recordValue(latencyNanos);
+        statuses.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, key -> new LongAdder())
+                .increment();
+        if (status >= 500) {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(final String endpoint) {
+        record(endpoint, 599, 0);
+    }
+
+    void reset() {
+        histograms.clear();
+        statuses.clear();
+        errors.reset();
+    }
+
+    long errorCount() {
+        return errors.sum();
+    }
+
+    boolean meetsSlo(final Duration p99Target) {
+        return histograms.values().stream()
+                .allMatch(histogram -> histogram.getValueAtPercentile(99) <= p99Target.toNanos());
+    }
+
+    void print(final PrintStream out, final Duration elapsed, final Duration p99Target) {
+        out.printf("%-22s %9s %9s %9s %9s %9s %9s %9s  %-4s %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "slo", "statuses");
+        new TreeMap<>(histograms).forEach((endpoint, histogram) -> out.printf(
+                "%-22s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %-4s %s%n",
+                endpoint,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / (elapsed.toMillis() / 1000.0),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                histogram.getValueAtPercentile(99) <= p99Target.toNanos() ? "ok" : "FAIL",
+                new TreeMap<>(statuses.get(endpoint))));
+    }
+
+    void writeHistograms(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (final Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            final Path file = directory.resolve(entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,280 @@
+package pl.kwec.mymanagerplannerservice.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed read/write workload against the full HTTP stack and an embedded Postgres, reached through
+ * the application's own Hikari pool. Sizes and timings are tunable with system properties, e.g.
+ * {@code mvn test -Ploadtest -Dloadtest.tasks=1000000 -Dloadtest.users=10000 -Dloadtest.duration-seconds=120};
+ * add {@code -Dspring.threads.virtual.enabled=true} to measure virtual-thread request handling.
+ * Per-endpoint percentile distributions are written to {@code target/loadtest}.
+ * <p>
+ * By default requests are sent open loop at {@code loadtest.rate} requests per second, with at most
+ * {@code loadtest.concurrency} in flight, and latency is measured from the time a request was due rather than
+ * sent, so a stalled server is charged for the requests it held back. {@code -Dloadtest.rate=0} runs
+ * {@code loadtest.concurrency} closed-loop clients instead, which only shows service time: each client waits for
+ * its response, so slow responses lower the request rate and stalls barely show in the percentiles. The summary
+ * names the mode that produced it.
+ */
+@Slf4j
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql=INFO",
+        "logging.level.pl.kwec.mymanagerplannerservice=WARN"
+})
+@DisplayName("TaskController - mixed workload load test")
+class TaskControllerLoadTest {
+
+    private static final int TASKS = Integer.getInteger("loadtest.tasks", 1_000_000);
+    private static final int USERS = Integer.getInteger("loadtest.users", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final int RATE = Integer.getInteger("loadtest.rate", 500);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 15));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60));
+    private static final Duration P99_TARGET = Duration.ofMillis(Integer.getInteger("loadtest.slo-p99-ms", 250));
+    private static final boolean ENFORCE_SLO = Boolean.getBoolean("loadtest.enforce-slo");
+    private static final Path REPORT_DIRECTORY = Path.of("target", "loadtest");
+
+    private static final List<Operation> WORKLOAD = List.of(
+            new Operation("GET /tasks", 20, random -> get("/tasks?page=" + random.nextInt(5) + "&size=20")),
+            new Operation("GET /tasks/scroll", 15, random -> get("/tasks/scroll?size=20")),
+            new Operation("GET /tasks/search?q", 10, random -> get("/tasks/search?query=report&size=20")),
+            new Operation("GET /tasks/search", 5, random -> get("/tasks/search?priority=HIGH&category=category%20" + random.nextInt(12))),
+            new Operation("GET /tasks/statistics", 10, random -> get("/tasks/statistics")),
+            new Operation("GET /tasks/overdue", 5, random -> get("/tasks/overdue")),
+            new Operation("POST /tasks", 15, random -> json("POST", "/tasks",
+                    "{\"title\":\"Load test task\",\"priority\":\"HIGH\",\"category\":\"category 1\"}")),
+            new Operation("PUT /tasks/{id}", 8, random -> json("PUT", "/tasks/{id}",
+                    "{\"title\":\"Updated by load test\",\"priority\":\"LOW\"}")),
+            new Operation("PATCH /tasks/{id}/..", 8, random -> json("PATCH",
+                    "/tasks/{id}/completion?completed=" + random.nextBoolean(), "")),
+            new Operation("DELETE /tasks/{id}", 4, random -> json("DELETE", "/tasks/{id}", ""))
+    );
+
+    private static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @DynamicPropertySource
+    static void embeddedPostgres(final DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url",
+                () -> postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should serve the mixed workload without server errors")
+    void shouldServeMixedWorkload() throws Exception {
+        new TaskDataGenerator(jdbcTemplate).seed(TASKS, USERS);
+        final LatencyReport report = new LatencyReport();
+
+        run(report, WARMUP);
+        report.reset();
+        run(report, DURATION);
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            out.printf("%d tasks, %d users, %s, %s threads, %s measured, p99 target %d ms%n",
+                    TASKS, USERS,
+                    RATE > 0
+                            ? "open loop at " + RATE + " req/s, up to " + CONCURRENCY + " in flight"
+                            : "closed loop with " + CONCURRENCY + " clients",
+                    environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false) ? "virtual" : "platform",
+                    DURATION, P99_TARGET.toMillis());
+            report.print(out, DURATION, P99_TARGET);
+        }
+        final String summary = buffer.toString(StandardCharsets.UTF_8);
+        log.warn("Load test results:\n{}", summary);
+        report.writeHistograms(REPORT_DIRECTORY);
+        Files.writeString(REPORT_DIRECTORY.resolve("summary.txt"), summary);
+
+        assertEquals(0, report.errorCount(), "Requests failed with server errors");
+        if (ENFORCE_SLO) {
+            assertTrue(report.meetsSlo(P99_TARGET), "p99 latency target missed");
+        }
+    }
+
+    private void run(final LatencyReport report, final Duration duration) throws Exception {
+        if (RATE > 0) {
+            runOpenLoop(report, duration);
+        } else {
+            runClosedLoop(report, duration);
+        }
+    }
+
+    /**
+     * Sends request {@code i} at {@code start + i / RATE}. A request that cannot go out on time, because the
+     * in-flight limit is reached, still has its latency counted from when it was due.
+     */
+    private void runOpenLoop(final LatencyReport report, final Duration duration) throws InterruptedException {
+        final long interval = Duration.ofSeconds(1).toNanos() / RATE;
+        final long requests = duration.toNanos() / interval;
+        final Semaphore inFlight = new Semaphore(CONCURRENCY);
+        final long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                final long dueAt = start + i * interval;
+                long remaining;
+                while ((remaining = dueAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        execute(pick(ThreadLocalRandom.current()), report, dueAt);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void runClosedLoop(final LatencyReport report, final Duration duration) throws Exception {
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            final List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(pick(ThreadLocalRandom.current()), report, System.nanoTime());
+                    }
+                }));
+            }
+            for (final Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void execute(final Operation operation, final LatencyReport report, final long dueAt) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long taskId = random.nextLong(1, TASKS + 1);
+        final long userId = operation.template().uri().contains("{id}")
+                ? TaskDataGenerator.ownerOf(taskId, USERS)
+                : random.nextLong(1, USERS + 1);
+        final HttpRequest request = operation.template().toRequest(port, taskId, userId);
+
+        try {
+            final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            report.record(operation.name(), response.statusCode(), System.nanoTime() - dueAt);
+        } catch (Exception e) {
+            log.error("Request {} failed", operation.name(), e);
+            report.recordFailure(operation.name());
+        }
+    }
+
+    private static Operation pick(final ThreadLocalRandom random) {
+        final int totalWeight = WORKLOAD.stream().mapToInt(Operation::weight).sum();
+        int roll = random.nextInt(totalWeight);
+        for (final Operation operation : WORKLOAD) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation.withTemplate(random);
+            }
+        }
+        throw new IllegalStateException("Workload weights are inconsistent");
+    }
+
+    private static RequestTemplate get(final String uri) {
+        return new RequestTemplate("GET", uri, null);
+    }
+
+    private static RequestTemplate json(final String method, final String uri, final String body) {
+        return new RequestTemplate(method, uri, body);
+    }
+
+    private record Operation(String name, int weight, Function<ThreadLocalRandom, RequestTemplate> factory,
+                             RequestTemplate template) {
+
+        Operation(final String name, final int weight, final Function<ThreadLocalRandom, RequestTemplate> factory) {
+            this(name, weight, factory, null);
+        }
+
+        Operation withTemplate(final ThreadLocalRandom random) {
+            return new Operation(name, weight, factory, factory.apply(random));
+        }
+    }
+
+    private record RequestTemplate(String method, String uri, String body) {
+
+        HttpRequest toRequest(final int port, final long taskId, final long userId) {
+            final String path = uri.replace("{id}", String.valueOf(taskId));
+            final HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + port + "/planner-service" + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("X-User-Id", String.valueOf(userId));
+            if (body == null) {
+                return builder.GET().build();
+            }
+            return builder.header("Content-Type", "application/json")
+                    .method(method, body.isEmpty()
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package pl.kwec.mymanagerplannerservice.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds the tasks table with a deterministic data set: task {@code n} has id {@code n} and
+ * belongs to user {@code n % users + 1}, so write workloads can address a task together with
+ * its owner without reading it first.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class TaskDataGenerator {
+
+    private static final int CHUNK_SIZE = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    void seed(final int tasks, final int users) {
+        final long start = System.nanoTime();
+        for (int from = 1; from <= tasks; from += CHUNK_SIZE) {
+            final int to = Math.min(from + CHUNK_SIZE - 1, tasks);
+            jdbcTemplate.update("""
+                    INSERT INTO tasks (id, title, description, completed, user_id, priority, due_date, category,
+                                       is_deleted, created_at, updated_at)
+                    SELECT n,
+                           'Task ' || n || ' ' || (ARRAY ['report', 'groceries', 'invoice', 'meeting', 'backup'])[n % 5 + 1],
+                           CASE WHEN n % 3 = 0 THEN NULL ELSE 'Generated description for task ' || n END,
+                           n % 4 = 0,
+                           n % ? + 1,
+                           (ARRAY ['LOW', 'MEDIUM', 'HIGH'])[n % 3 + 1],
+                           CASE WHEN n % 5 = 0 THEN NULL ELSE now() + (n % 60 - 20) * interval '1 day' END,
+                           'category ' || n % 12,
+                           n % 20 = 0,
+                           now() - (? - n) * interval '1 second',
+                           now()
+                    FROM generate_series(?, ?) AS n
+                    """, users, tasks, from, to);
+        }
+        jdbcTemplate.execute("SELECT setval('tasks_id_seq', (SELECT MAX(id) FROM tasks) + 50, false)");
+        jdbcTemplate.execute("ANALYZE tasks");
+        jdbcTemplate.execute("ANALYZE task_counters");
+        log.info("Seeded {} tasks for {} users in {} ms", tasks, users, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static long ownerOf(final long taskId, final int users) {
+        return taskId % users + 1;
+    }
+}
@@ -0,0 +1,196 @@
+package pl.kwec.mymanagerplannerservice.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import pl.kwec.mymanagerplannerservice.task.TaskPartitionMover;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Per-user query latency on the same data set before and after the tasks table is hash-partitioned
+ * by user_id. The table is seeded at migration V7, measured, moved into the partitioned table by
+ * {@link TaskPartitionMover} and measured again. Statements are the shapes TaskRepository generates
+ * and run as server-side prepared statements, so generic plans with run-time pruning are included.
+ * Sizes are tunable, e.g. {@code mvn test -Ploadtest -Dtest=TaskPartitioningLoadTest
+ * -Dloadtest.partitioning.tasks=50000000 -Dloadtest.partitioning.users=100000}. With the default
+ * {@code plan_cache_mode} Postgres costs a generic plan as if no partition were pruned and re-plans
+ * every execution on the partitioned table; {@code -Dloadtest.partitioning.plan-cache-mode=force_generic_plan}
+ * measures run-time pruning instead.
+ */
+@Slf4j
+@Tag("loadtest")
+@DisplayName("tasks partitioning - per-user query latency before and after")
+class TaskPartitioningLoadTest {
+
+    private static final int TASKS = Integer.getInteger("loadtest.partitioning.tasks", 1_000_000);
+    private static final int USERS = Integer.getInteger("loadtest.partitioning.users", 10_000);
+    private static final int QUERIES = Integer.getInteger("loadtest.partitioning.queries", 2_000);
+    private static final int WARMUP_QUERIES = QUERIES / 5;
+    private static final String PLAN_CACHE_MODE = System.getProperty("loadtest.partitioning.plan-cache-mode", "auto");
+    private static final Duration P99_TARGET = Duration.ofMillis(Integer.getInteger("loadtest.slo-p99-ms", 250));
+    private static final Path REPORT_DIRECTORY = Path.of("target", "loadtest", "partitioning");
+    private static final Timestamp SYNC_START = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    private static final List<Query> QUERY_SHAPES = List.of(
+            new Query("first page", """
+                    SELECT * FROM tasks WHERE user_id = ? AND is_deleted = false
+                    ORDER BY created_at DESC, id DESC LIMIT 21
+                    """, userId -> new Object[]{userId}),
+            new Query("task by id", "SELECT * FROM tasks WHERE id = ? AND user_id = ?",
+                    userId -> new Object[]{ownedTaskId(userId), userId}),
+            new Query("overdue count", """
+                    SELECT count(id) FROM tasks WHERE user_id = ? AND is_deleted = false
+                    AND due_date <= now() AND completed = false
+                    """, userId -> new Object[]{userId}),
+            new Query("category search", """
+                    SELECT * FROM tasks WHERE user_id = ? AND is_deleted = false AND category = ?
+                    ORDER BY created_at DESC, id DESC LIMIT 20
+                    """, userId -> new Object[]{userId, "category " + userId % 12}),
+            new Query("sync page", """
+                    SELECT * FROM tasks WHERE user_id = ? AND (updated_at, id) > (?, 0)
+                    ORDER BY updated_at, id LIMIT 101
+                    """, userId -> new Object[]{userId, SYNC_START}),
+            new Query("version", """
+                    SELECT count(id), max(updated_at),
+                           (SELECT max(d.due_date) FROM tasks d WHERE d.user_id = ? AND d.is_deleted = false
+                            AND d.completed = false AND d.due_date <= now())
+                    FROM tasks t WHERE t.user_id = ?
+                    """, userId -> new Object[]{userId, userId})
+    );
+
+    private static EmbeddedPostgres postgres;
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        // One connection keeps the statements prepared on the server, as the Hikari pool would.
+        dataSource = new SingleConnectionDataSource(postgres.getJdbcUrl("postgres", "postgres")
+                + "&options=-c%20plan_cache_mode%3D" + PLAN_CACHE_MODE, "postgres", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (dataSource != null) {
+            dataSource.destroy();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should report per-user query latency on the plain and the partitioned table")
+    void shouldCompareLatencyBeforeAndAfterPartitioning() throws IOException {
+        migrate("7");
+        new TaskDataGenerator(jdbcTemplate).seed(TASKS, USERS);
+        final String sizeBefore = tableSize();
+        final Measurement before = measure();
+
+        migrate("8");
+        final long start = System.nanoTime();
+        new TaskPartitionMover(jdbcTemplate, 100_000, Duration.ZERO, Duration.ofSeconds(5)).move();
+        final Duration moveTime = Duration.ofNanos(System.nanoTime() - start);
+        jdbcTemplate.execute("ANALYZE tasks");
+        assertEquals(TASKS, jdbcTemplate.queryForObject("SELECT count(*) FROM tasks", Integer.class));
+        final String sizeAfter = tableSize();
+        final Measurement after = measure();
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            out.printf("%d tasks, %d users, %d queries per shape, plan_cache_mode %s, moved in %d s%n",
+                    TASKS, USERS, QUERIES, PLAN_CACHE_MODE, moveTime.toSeconds());
+            out.printf("%nunpartitioned (%s)%n", sizeBefore);
+            before.report().print(out, before.elapsed(), P99_TARGET);
+            out.printf("%npartitioned by user_id (%s)%n", sizeAfter);
+            after.report().print(out, after.elapsed(), P99_TARGET);
+        }
+        final String summary = buffer.toString(StandardCharsets.UTF_8);
+        log.warn("Partitioning results:\n{}", summary);
+        before.report().writeHistograms(REPORT_DIRECTORY.resolve("unpartitioned"));
+        after.report().writeHistograms(REPORT_DIRECTORY.resolve("partitioned"));
+        Files.writeString(REPORT_DIRECTORY.resolve("summary.txt"), summary);
+    }
+
+    private Measurement measure() {
+        final LatencyReport report = new LatencyReport();
+        for (final Query query : QUERY_SHAPES) {
+            run(query, report, WARMUP_QUERIES);
+        }
+        report.reset();
+        final long start = System.nanoTime();
+        for (final Query query : QUERY_SHAPES) {
+            run(query, report, QUERIES);
+        }
+        return new Measurement(report, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void run(final Query query, final LatencyReport report, final int count) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            final long userId = random.nextLong(1, USERS + 1);
+            final Object[] parameters = query.parameters().apply(userId);
+            final long start = System.nanoTime();
+            jdbcTemplate.queryForList(query.sql(), parameters);
+            report.record(query.name(), 200, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Task {@code n} belongs to user {@code n % users + 1}, see {@link TaskDataGenerator}.
+     */
+    private static long ownedTaskId(final long userId) {
+        final long tasksPerUser = Math.max(1, TASKS / USERS);
+        final long taskId = ThreadLocalRandom.current().nextLong(tasksPerUser) * USERS + userId - 1;
+        return taskId == 0 ? USERS : taskId;
+    }
+
+    private static String tableSize() {
+        return jdbcTemplate.queryForObject("""
+                SELECT 'table ' || pg_size_pretty(sum(pg_table_size(relid))) || ', indexes '
+                       || pg_size_pretty(sum(pg_indexes_size(relid)))
+                FROM (SELECT 'tasks'::regclass AS relid
+                      UNION ALL
+                      SELECT inhrelid FROM pg_inherits WHERE inhparent = 'tasks'::regclass) AS relations
+                """, String.class);
+    }
+
+    private static void migrate(final String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .target(target)
+                .placeholders(Map.of("partitionInlineRowLimit", "0"))
+                .load()
+                .migrate();
+    }
+
+    private record Measurement(LatencyReport report, Duration elapsed) {
+    }
+
+    private record Query(String name, String sql, Function<Long, Object[]> parameters) {
+    }
+}
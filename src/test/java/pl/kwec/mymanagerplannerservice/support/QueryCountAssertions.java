@@ -0,0 +1,83 @@
+package pl.kwec.mymanagerplannerservice.support;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions over the statements an action sends through the counting data source, e.g.
+ * {@code assertStatements(() -> taskService.searchTasks(...)).total(2).selects(2)}.
+ * Batched statements count once per JDBC batch execution.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static StatementExpectation assertStatements(final ThrowingSupplier<?> action) {
+        QueryCountHolder.clear();
+        try {
+            assertDoesNotThrow(action);
+            return new StatementExpectation(QueryCountHolder.getGrandTotal());
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+
+    public static final class StatementExpectation {
+
+        private final long total;
+        private final long selects;
+        private final long inserts;
+        private final long updates;
+        private final long deletes;
+
+        private StatementExpectation(final QueryCount count) {
+            this.total = count.getTotal();
+            this.selects = count.getSelect();
+            this.inserts = count.getInsert();
+            this.updates = count.getUpdate();
+            this.deletes = count.getDelete();
+        }
+
+        public StatementExpectation total(final long expected) {
+            assertEquals(expected, total, () -> "Unexpected number of statements: " + this);
+            return this;
+        }
+
+        public StatementExpectation totalAtMost(final long limit) {
+            assertTrue(total <= limit, () -> "Expected at most " + limit + " statements: " + this);
+            return this;
+        }
+
+        public StatementExpectation selects(final long expected) {
+            assertEquals(expected, selects, () -> "Unexpected number of selects: " + this);
+            return this;
+        }
+
+        public StatementExpectation inserts(final long expected) {
+            assertEquals(expected, inserts, () -> "Unexpected number of inserts: " + this);
+            return this;
+        }
+
+        public StatementExpectation updates(final long expected) {
+            assertEquals(expected, updates, () -> "Unexpected number of updates: " + this);
+            return this;
+        }
+
+        public StatementExpectation deletes(final long expected) {
+            assertEquals(expected, deletes, () -> "Unexpected number of deletes: " + this);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "total=" + total + ", select=" + selects + ", insert=" + inserts
+                    + ", update=" + updates + ", delete=" + deletes;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OverdueTaskScheduler - deadline firing")
+class OverdueTaskSchedulerTest {
+
+    private static final long USER_ID = 7L;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OverdueTaskScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new OverdueTaskScheduler(taskRepository, eventPublisher, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("should publish an overdue event once a loaded deadline passes")
+    void shouldPublishOverdueEventForLoadedDeadline() {
+        final TaskDeadline deadline = new TaskDeadline(1L, USER_ID, LocalDateTime.now().plusNanos(200_000_000));
+        when(taskRepository.findUpcomingDeadlines(any(), any())).thenReturn(List.of(deadline));
+        when(taskRepository.findOverdueDeadlines(eq(Set.of(USER_ID)), eq(List.of(1L)), any())).thenReturn(List.of(deadline));
+
+        scheduler.loadUpcomingDeadlines();
+
+        verify(eventPublisher, timeout(2_000)).publishEvent(new TaskOverdueEvent(1L, USER_ID, deadline.dueDate()));
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    @DisplayName("should not publish for a task completed or deleted before its deadline")
+    void shouldSkipTasksClosedBeforeDeadline() {
+        final TaskDeadline deadline = new TaskDeadline(1L, USER_ID, LocalDateTime.now().plusNanos(100_000_000));
+        when(taskRepository.findUpcomingDeadlines(any(), any())).thenReturn(List.of(deadline));
+        when(taskRepository.findOverdueDeadlines(eq(Set.of(USER_ID)), eq(List.of(1L)), any())).thenReturn(List.of());
+
+        scheduler.loadUpcomingDeadlines();
+
+        verify(taskRepository, timeout(2_000)).findOverdueDeadlines(eq(Set.of(USER_ID)), eq(List.of(1L)), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("should schedule a due date set inside the loaded window without reloading")
+    void shouldScheduleDueDateChangedInsideWindow() {
+        when(taskRepository.findUpcomingDeadlines(any(), any())).thenReturn(List.of());
+        scheduler.loadUpcomingDeadlines();
+        final LocalDateTime dueDate = LocalDateTime.now().plusNanos(100_000_000);
+        final TaskDeadline deadline = new TaskDeadline(2L, USER_ID, dueDate);
+        when(taskRepository.findOverdueDeadlines(eq(Set.of(USER_ID)), eq(List.of(2L)), any())).thenReturn(List.of(deadline));
+
+        scheduler.onDueDateChanged(new TaskDueDateChangedEvent(2L, USER_ID, dueDate));
+
+        verify(eventPublisher, timeout(2_000)).publishEvent(new TaskOverdueEvent(2L, USER_ID, dueDate));
+    }
+
+    @Test
+    @DisplayName("should drop a loaded deadline moved beyond the window")
+    void shouldDropDeadlineMovedBeyondWindow() {
+        final TaskDeadline deadline = new TaskDeadline(3L, USER_ID, LocalDateTime.now().plusNanos(100_000_000));
+        when(taskRepository.findUpcomingDeadlines(any(), any())).thenReturn(List.of(deadline));
+        scheduler.loadUpcomingDeadlines();
+
+        scheduler.onDueDateChanged(new TaskDueDateChangedEvent(3L, USER_ID, LocalDateTime.now().plusDays(1)));
+
+        verify(taskRepository, after(500).never()).findOverdueDeadlines(anyCollection(), anyCollection(), any());
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+}
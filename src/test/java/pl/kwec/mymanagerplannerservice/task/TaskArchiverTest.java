@@ -0,0 +1,184 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskArchivedResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskStatisticsResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskSyncResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskTombstoneResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = "planner.archive.batch-size=2")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({TaskService.class, TaskArchiver.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@RecordApplicationEvents
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("TaskArchiver - moving dead rows out of the tasks table")
+class TaskArchiverTest {
+
+    private static final long USER_ID = 1L;
+    private static final long OTHER_USER_ID = 2L;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE tasks, tasks_archive, task_counters");
+    }
+
+    @Test
+    @DisplayName("should archive old soft-deleted and long-completed tasks in batches and keep everything else")
+    void shouldArchiveOnlyExpiredTasks() {
+        insertTask("deleted long ago", USER_ID, false, true, 40);
+        insertTask("deleted long ago too", USER_ID, false, true, 31);
+        insertTask("deleted yesterday", USER_ID, false, true, 1);
+        insertTask("completed long ago", USER_ID, true, false, 120);
+        insertTask("completed long ago by another user", OTHER_USER_ID, true, false, 100);
+        insertTask("completed last week", USER_ID, true, false, 7);
+        insertTask("open and old", USER_ID, false, false, 365);
+        final TaskStatisticsResponse before = taskService.getTaskStatistics(USER_ID, null);
+
+        assertEquals(4, taskArchiver.archive());
+
+        assertEquals(List.of("completed last week", "deleted yesterday", "open and old"),
+                jdbcTemplate.queryForList("SELECT title FROM tasks ORDER BY title", String.class));
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks_archive WHERE archived_at > now() - interval '1 minute'", Integer.class));
+        assertEquals(0, taskRepository.reconcileStatisticsCounters(0, 100).getRepaired());
+        final TaskStatisticsResponse after = taskService.getTaskStatistics(USER_ID, null);
+        assertEquals(2, after.getCompletedCount());
+        assertEquals(before.getCompletedCount(), after.getCompletedCount());
+        assertEquals(before.getCompletionPercentage(), after.getCompletionPercentage());
+        assertEquals(Set.of(new TasksArchivedEvent(USER_ID, 3), new TasksArchivedEvent(OTHER_USER_ID, 1)),
+                applicationEvents.stream(TasksArchivedEvent.class)
+                        .collect(Collectors.groupingBy(TasksArchivedEvent::userId,
+                                Collectors.summingInt(TasksArchivedEvent::archivedCount)))
+                        .entrySet().stream()
+                        .map(entry -> new TasksArchivedEvent(entry.getKey(), entry.getValue()))
+                        .collect(Collectors.toSet()));
+        assertEquals(0, taskArchiver.archive());
+    }
+
+    @Test
+    @DisplayName("should serve archived tasks on request and report them to sync apart from deleted ones")
+    void shouldReadArchivedTasks() {
+        final TaskSyncResponse initial = taskService.syncTasks(USER_ID, null, 100);
+        final long completedId = insertTask("completed long ago", USER_ID, true, false, 120);
+        final long deletedId = insertTask("deleted long ago", USER_ID, false, true, 40);
+        insertTask("open", USER_ID, false, false, 1);
+
+        taskArchiver.archive();
+
+        assertEquals(List.of("completed long ago"), taskService.getArchivedTasks(USER_ID, PageRequest.of(0, 10))
+                .map(TaskResponse::getTitle).getContent());
+        assertFalse(taskService.getArchivedTasks(OTHER_USER_ID, PageRequest.of(0, 10)).hasContent());
+        assertEquals(List.of("open"), taskService.getUserTasks(USER_ID).stream().map(TaskResponse::getTitle).toList());
+
+        final TaskSyncResponse sync = taskService.syncTasks(USER_ID, initial.getNextToken(), 100);
+        assertEquals(List.of(deletedId), sync.getDeleted().stream().map(TaskTombstoneResponse::getId).toList());
+        assertEquals(List.of(completedId), sync.getArchived().stream().map(TaskArchivedResponse::getId).toList());
+        assertEquals(List.of("open"), sync.getUpserts().stream().map(TaskResponse::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("should report tasks archived by a later batch to a sync token issued between the batches")
+    void shouldSyncBatchesArchivedAfterTheToken() {
+        final TaskSyncResponse initial = taskService.syncTasks(USER_ID, null, 100);
+        final long firstId = insertTask("completed long ago", USER_ID, true, false, 120);
+        final long secondId = insertTask("completed long ago too", USER_ID, true, false, 110);
+        final long thirdId = insertTask("completed long ago as well", USER_ID, true, false, 100);
+        final long openId = insertTask("open", USER_ID, false, false, 1);
+        final List<TaskSyncResponse> syncsBetweenBatches = new ArrayList<>();
+        final TransactionOperations syncingBetweenBatches = new TransactionOperations() {
+            private int batches;
+
+            @Override
+            public <T> T execute(final TransactionCallback<T> action) {
+                if (batches++ == 1) {
+                    // Past the sync overlap, so the token moves beyond the first batch to the rename.
+                    sleep(Duration.ofSeconds(6));
+                    jdbcTemplate.update("UPDATE tasks SET title = 'renamed', updated_at = ? WHERE id = ?",
+                            LocalDateTime.now(), openId);
+                    syncsBetweenBatches.add(taskService.syncTasks(USER_ID, initial.getNextToken(), 100));
+                }
+                return transactionOperations.execute(action);
+            }
+        };
+        final TaskArchiver archiver = new TaskArchiver(taskRepository, event -> {
+        }, syncingBetweenBatches, Duration.ofDays(30), Duration.ofDays(30), 2, 10);
+
+        assertEquals(3, archiver.archive());
+
+        final TaskSyncResponse betweenBatches = syncsBetweenBatches.getFirst();
+        final TaskSyncResponse afterRun = taskService.syncTasks(USER_ID, betweenBatches.getNextToken(), 100);
+        assertEquals(2, betweenBatches.getArchived().size());
+        assertEquals(1, afterRun.getArchived().size());
+        assertEquals(Set.of(firstId, secondId, thirdId),
+                Stream.concat(betweenBatches.getArchived().stream(), afterRun.getArchived().stream())
+                        .map(TaskArchivedResponse::getId)
+                        .collect(Collectors.toSet()));
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long insertTask(final String title, final long userId, final boolean completed, final boolean deleted,
+                            final int daysAgo) {
+        final LocalDateTime changedAt = LocalDateTime.now().minusDays(daysAgo);
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO tasks (title, completed, user_id, priority, is_deleted, created_at, updated_at, deleted_at)
+                VALUES (?, ?, ?, 'MEDIUM', ?, ?, ?, ?)
+                RETURNING id
+                """, Long.class, title, completed, userId, deleted, changedAt, changedAt, deleted ? changedAt : null);
+    }
+}
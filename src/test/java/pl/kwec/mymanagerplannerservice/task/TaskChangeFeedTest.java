@@ -0,0 +1,239 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@DisplayName("TaskChangeFeed - per-user change stream")
+class TaskChangeFeedTest {
+
+    private static final long USER_ID = 1L;
+    private static final Pattern EVENT_ID = Pattern.compile("event:task-change\\nid:(\\S+)");
+
+    private final StallingFilter stallingFilter = new StallingFilter();
+    private TaskChangeFeed feed;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        startFeed(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stallingFilter.release();
+        feed.shutdown();
+    }
+
+    @Test
+    @DisplayName("should push committed changes of the user only")
+    void shouldPushChangesOfSubscribedUser() throws Exception {
+        final MvcResult stream = subscribe(null);
+
+        feed.onTaskChanged(change(2L, TaskChangeType.CREATED, 11L));
+        feed.onTaskChanged(change(USER_ID, TaskChangeType.CREATED, 10L));
+
+        final String content = awaitContent(stream, "\"taskId\":10");
+        assertTrue(content.startsWith("event:subscribed\nid:"), content);
+        assertTrue(content.contains("\"type\":\"CREATED\""), content);
+        assertTrue(content.contains("\"title\":\"task 10\""), content);
+        assertFalse(content.contains("\"taskId\":11"), content);
+        assertEquals(1, feed.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("should replay only the changes after Last-Event-ID")
+    void shouldReplayChangesAfterLastEventId() throws Exception {
+        final MvcResult first = subscribe(null);
+        feed.onTaskChanged(change(USER_ID, TaskChangeType.CREATED, 10L));
+        feed.onTaskChanged(change(USER_ID, TaskChangeType.COMPLETED, 10L));
+        final List<String> ids = changeIds(awaitContent(first, "COMPLETED"));
+
+        final String resumed = awaitContent(subscribe(ids.get(0)), "event:subscribed");
+
+        assertEquals(List.of(ids.get(1)), changeIds(resumed));
+        assertTrue(resumed.contains("COMPLETED"), resumed);
+    }
+
+    @Test
+    @DisplayName("should ask the client to reload when the missed changes are no longer buffered")
+    void shouldResetWhenChangesWereEvicted() throws Exception {
+        final MvcResult first = subscribe(null);
+        for (long taskId = 10; taskId < 14; taskId++) {
+            feed.onTaskChanged(change(USER_ID, TaskChangeType.CREATED, taskId));
+        }
+        final String firstId = changeIds(awaitContent(first, "\"taskId\":13")).get(0);
+
+        assertTrue(awaitContent(subscribe(firstId), "event:reset").contains("event:reset"));
+        assertTrue(awaitContent(subscribe("other-node-5"), "event:reset").contains("event:reset"));
+    }
+
+    @Test
+    @Timeout(value = 30, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    @DisplayName("should disconnect only the subscriber that fell behind and keep publishing to the others")
+    void shouldDisconnectOnlyTheSubscriberThatFellBehind() throws Exception {
+        feed.shutdown();
+        startFeed(2, stallingFilter);
+        final MvcResult healthy = subscribe(null);
+        final MvcResult stalled = mockMvc.perform(get("/changes").header(StallingFilter.STALL_HEADER, "true")).andReturn();
+        awaitContent(stalled, "event:subscribed");
+        stallingFilter.stall();
+
+        for (long taskId = 10; taskId < 14; taskId++) {
+            feed.onTaskChanged(change(USER_ID, TaskChangeType.CREATED, taskId));
+            awaitContent(healthy, "\"taskId\":" + taskId);
+        }
+        feed.sendHeartbeats();
+
+        final String content = awaitContent(healthy, ":heartbeat");
+        assertEquals(4, changeIds(content).size(), content);
+        assertTrue(content.contains(":heartbeat"), content);
+        assertEquals(1, feed.getSubscriberCount());
+    }
+
+    private void startFeed(final int maxBacklog, final Filter... filters) {
+        feed = new TaskChangeFeed(new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry(),
+                2, maxBacklog, Duration.ofMinutes(5));
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(feed)).addFilters(filters).build();
+    }
+
+    private MvcResult subscribe(final String lastEventId) throws Exception {
+        return mockMvc.perform(lastEventId == null
+                ? get("/changes")
+                : get("/changes").header("Last-Event-ID", lastEventId)).andReturn();
+    }
+
+    private static TaskChangedEvent change(final Long userId, final TaskChangeType type, final Long taskId) {
+        return new TaskChangedEvent(userId, type, taskId, TaskResponse.builder().id(taskId).title("task " + taskId).build());
+    }
+
+    private static String awaitContent(final MvcResult stream, final String expected) throws Exception {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private static List<String> changeIds(final String content) {
+        final Matcher matcher = EVENT_ID.matcher(content);
+        return matcher.results().map(result -> result.group(1)).toList();
+    }
+
+    /**
+     * Once stalled, blocks every write to a response of a request carrying {@link #STALL_HEADER} until released,
+     * like a client that stopped reading.
+     */
+    private static final class StallingFilter implements Filter {
+
+        private static final String STALL_HEADER = "X-Stall";
+
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private void stall() {
+            stalled.set(true);
+        }
+
+        private void release() {
+            released.countDown();
+        }
+
+        @Override
+        public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+                throws IOException, ServletException {
+            if (((HttpServletRequest) request).getHeader(STALL_HEADER) == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            final ServletOutputStream outputStream = response.getOutputStream();
+            chain.doFilter(request, new HttpServletResponseWrapper((HttpServletResponse) response) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return new ServletOutputStream() {
+                        @Override
+                        public void write(final int b) throws IOException {
+                            awaitRelease();
+                            outputStream.write(b);
+                        }
+
+                        @Override
+                        public void write(final byte[] b, final int off, final int len) throws IOException {
+                            awaitRelease();
+                            outputStream.write(b, off, len);
+                        }
+
+                        @Override
+                        public boolean isReady() {
+                            return true;
+                        }
+
+                        @Override
+                        public void setWriteListener(final WriteListener writeListener) {
+                            outputStream.setWriteListener(writeListener);
+                        }
+                    };
+                }
+            });
+        }
+
+        private void awaitRelease() throws IOException {
+            if (!stalled.get()) {
+                return;
+            }
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    @RestController
+    private record StreamController(TaskChangeFeed feed) {
+
+        @GetMapping("/changes")
+        SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) final String lastEventId) {
+            return feed.subscribe(USER_ID, lastEventId);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode;
+import org.springframework.data.web.config.SpringDataJacksonConfiguration;
+import org.springframework.data.web.config.SpringDataWebSettings;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pl.kwec.mymanagerplannerservice.config.BinaryEncodingConfig;
+import pl.kwec.mymanagerplannerservice.filter.UserIdAuthFilter;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskController - JSON, Smile and CBOR task pages")
+class TaskControllerEncodingTest {
+
+    private static final long USER_ID = 1L;
+    private static final LocalDateTime DUE_DATE = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private OverdueTaskNotifier overdueTaskNotifier;
+
+    @Mock
+    private TaskChangeFeed taskChangeFeed;
+
+    private final BinaryEncodingConfig binaryEncodingConfig = new BinaryEncodingConfig();
+    private final List<AbstractJackson2HttpMessageConverter> converters = List.of(
+            new MappingJackson2HttpMessageConverter(objectMapperBuilder().build()),
+            binaryEncodingConfig.smileHttpMessageConverter(objectMapperBuilder()),
+            binaryEncodingConfig.cborHttpMessageConverter(objectMapperBuilder()));
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        final ObjectMapper objectMapper = converters.get(0).getObjectMapper();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new TaskController(taskService, objectMapper, overdueTaskNotifier, taskChangeFeed))
+                .setMessageConverters(converters.toArray(AbstractJackson2HttpMessageConverter[]::new))
+                .build();
+        when(taskService.getTasksETag(USER_ID)).thenReturn("\"v1\"");
+        lenient().when(taskService.getUserTasks(eq(USER_ID), any())).thenReturn(new PageImpl<>(List.of(TaskResponse.builder()
+                .id(7L)
+                .title("Buy milk")
+                .priority(Task.Priority.HIGH)
+                .dueDate(DUE_DATE)
+                .build()), PageRequest.of(0, 20), 1));
+    }
+
+    @Test
+    @DisplayName("should keep JSON as the default with the original page shape")
+    void shouldServeJsonPageByDefault() throws Exception {
+        final JsonNode body = converters.get(0).getObjectMapper().readTree(getTasks(MediaType.ALL).getResponse()
+                .getContentAsByteArray());
+
+        assertEquals("Buy milk", body.at("/content/0/title").asText());
+        assertEquals("2026-01-01T10:00:00", body.at("/content/0/dueDate").asText());
+        assertEquals(1, body.at("/totalElements").asLong());
+        assertEquals(20, body.at("/size").asInt());
+        assertEquals(20, body.at("/pageable/pageSize").asInt());
+        assertTrue(body.has("sort"));
+        assertFalse(body.has("page"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/x-jackson-smile", "application/cbor"})
+    @DisplayName("should negotiate a binary encoding with numeric dates and the slim page envelope")
+    void shouldNegotiateBinaryEncoding(final String mediaType) throws Exception {
+        final AbstractJackson2HttpMessageConverter converter = converters.stream()
+                .filter(candidate -> candidate.getSupportedMediaTypes().contains(MediaType.valueOf(mediaType)))
+                .findFirst()
+                .orElseThrow();
+        final byte[] json = getTasks(MediaType.APPLICATION_JSON).getResponse().getContentAsByteArray();
+
+        final MvcResult result = getTasks(MediaType.valueOf(mediaType));
+
+        assertEquals(mediaType, result.getResponse().getContentType());
+        assertEquals(List.of(HttpHeaders.ACCEPT), result.getResponse().getHeaders(HttpHeaders.VARY));
+        final byte[] bytes = result.getResponse().getContentAsByteArray();
+        final JsonNode body = converter.getObjectMapper().readTree(bytes);
+        assertTrue(body.at("/content/0/dueDate").isArray());
+        assertEquals(DUE_DATE, converter.getObjectMapper().treeToValue(body.at("/content/0"), TaskResponse.class)
+                .getDueDate());
+        assertEquals(1, body.at("/page/totalElements").asLong());
+        assertFalse(body.has("pageable"));
+        assertTrue(bytes.length < json.length, () -> mediaType + " " + bytes.length + "B vs JSON " + json.length + "B");
+    }
+
+    @Test
+    @DisplayName("should answer a matching If-None-Match with 304 and Vary: Accept without loading the page")
+    void shouldAnswerNotModifiedWithoutLoadingPage() throws Exception {
+        final MvcResult result = mockMvc.perform(get("/tasks")
+                        .requestAttr(UserIdAuthFilter.USER_ID_ATTRIBUTE, USER_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")
+                        .accept(MediaType.valueOf("application/cbor")))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertEquals("\"v1\"", result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(List.of(HttpHeaders.ACCEPT), result.getResponse().getHeaders(HttpHeaders.VARY));
+        assertEquals(0, result.getResponse().getContentLength());
+        verify(taskService, never()).getUserTasks(eq(USER_ID), any());
+    }
+
+    private MvcResult getTasks(final MediaType accept) throws Exception {
+        return mockMvc.perform(get("/tasks")
+                        .requestAttr(UserIdAuthFilter.USER_ID_ATTRIBUTE, USER_ID)
+                        .accept(accept))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static Jackson2ObjectMapperBuilder objectMapperBuilder() {
+        return new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new SpringDataJacksonConfiguration.PageModule(
+                        new SpringDataWebSettings(PageSerializationMode.DIRECT)));
+    }
+}
@@ -0,0 +1,168 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pl.kwec.mymanagerplannerservice.exception.GlobalExceptionHandler;
+import pl.kwec.mymanagerplannerservice.filter.UserIdAuthFilter;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskController - streamed task lists")
+class TaskControllerStreamingTest {
+
+    private static final long USER_ID = 1L;
+    private static final LocalDateTime DUE_DATE = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OverdueTaskNotifier overdueTaskNotifier;
+
+    @Mock
+    private TaskChangeFeed taskChangeFeed;
+
+    private final ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        final TaskService taskService = new TaskService(taskRepository, eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new TaskController(taskService, objectMapper, overdueTaskNotifier, taskChangeFeed))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    @DisplayName("should stream all tasks as one JSON array")
+    void shouldStreamAllTasksAsJsonArray() throws Exception {
+        when(taskRepository.findVersion(eq(USER_ID), any())).thenReturn(version());
+        when(taskRepository.streamAllByUserId(USER_ID)).thenReturn(Stream.of(task(7L, "Buy milk"), task(8L, "Call mom")));
+
+        final MvcResult result = streamed("/tasks/all");
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, result.getResponse().getContentType());
+        final JsonNode body = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertTrue(body.isArray());
+        assertEquals(2, body.size());
+        assertEquals(7, body.at("/0/id").asLong());
+        assertEquals("Buy milk", body.at("/0/title").asText());
+        assertEquals("2026-01-01T10:00:00", body.at("/0/dueDate").asText());
+        assertEquals("Call mom", body.at("/1/title").asText());
+    }
+
+    @Test
+    @DisplayName("should stream an empty JSON array for a user without tasks")
+    void shouldStreamEmptyArray() throws Exception {
+        when(taskRepository.findVersion(eq(USER_ID), any())).thenReturn(version());
+        when(taskRepository.streamAllByUserId(USER_ID)).thenReturn(Stream.empty());
+
+        assertEquals("[]", streamed("/tasks/all").getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("should export one JSON task per line")
+    void shouldExportNdjson() throws Exception {
+        when(taskRepository.streamAllByUserId(USER_ID)).thenReturn(Stream.of(task(7L, "Buy milk"), task(8L, "Call mom")));
+
+        final MvcResult result = streamed("/tasks/export");
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        final List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("Buy milk", objectMapper.readTree(lines.get(0)).get("title").asText());
+        assertEquals("Call mom", objectMapper.readTree(lines.get(1)).get("title").asText());
+    }
+
+    @Test
+    @DisplayName("should export an empty body for a user without tasks")
+    void shouldExportNothing() throws Exception {
+        when(taskRepository.streamAllByUserId(USER_ID)).thenReturn(Stream.empty());
+
+        assertEquals("", streamed("/tasks/export").getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("should reject an invalid user with 400 before streaming")
+    void shouldRejectInvalidUser() throws Exception {
+        for (final String path : List.of("/tasks/all", "/tasks/export")) {
+            mockMvc.perform(get(path).requestAttr(UserIdAuthFilter.USER_ID_ATTRIBUTE, -1L))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isBadRequest());
+        }
+        verify(taskRepository, never()).streamAllByUserId(anyLong());
+    }
+
+    private MvcResult streamed(final String path) throws Exception {
+        final MvcResult started = mockMvc.perform(get(path).requestAttr(UserIdAuthFilter.USER_ID_ATTRIBUTE, USER_ID))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static TaskResponse task(final long id, final String title) {
+        return TaskResponse.builder()
+                .id(id)
+                .title(title)
+                .priority(Task.Priority.HIGH)
+                .dueDate(DUE_DATE)
+                .build();
+    }
+
+    private static TaskVersion version() {
+        return new TaskVersion() {
+            @Override
+            public Long getVersion() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getLastPassedDueDate() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("TaskCursor - encode/decode")
+class TaskCursorTest {
+
+    @Test
+    @DisplayName("should decode what it encodes")
+    void shouldRoundTrip() {
+        final TaskCursor cursor = new TaskCursor(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000), 42L);
+
+        final TaskCursor decoded = TaskCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    @DisplayName("should build cursor from task creation time and id")
+    void shouldBuildCursorFromTask() {
+        final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        final Task task = Task.builder().id(7L).createdAt(createdAt).build();
+
+        assertEquals(new TaskCursor(createdAt, 7L), TaskCursor.of(task));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not-base64!", "bm8tc2VwYXJhdG9y", "MjAyNS0wMS0wMVQxMjowMHxhYmM", "eHx5"})
+    @DisplayName("should throw IllegalArgumentException for malformed cursors")
+    void shouldRejectMalformedCursor(final String cursor) {
+        final IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> TaskCursor.decode(cursor)
+        );
+        assertEquals("Cursor is invalid", exception.getMessage());
+    }
+}
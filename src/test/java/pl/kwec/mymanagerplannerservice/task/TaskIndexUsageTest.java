@@ -0,0 +1,199 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@DisplayName("tasks indexes - EXPLAIN of repository query shapes")
+class TaskIndexUsageTest {
+
+    private static final long USER_ID = 7L;
+    private static final long HEAVY_USER_ID = 1_000L;
+    private static final int PARTITIONS = 16;
+    private static final Pattern SORT_NODE = Pattern.compile("\\bSort\\s+\\(");
+
+    private final AtomicInteger statementCounter = new AtomicInteger();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // The rows below are never committed, so an autoanalyze running mid-test would replace the statistics
+        // gathered here with ones that do not see them.
+        jdbcTemplate.queryForList("SELECT inhrelid::regclass::text FROM pg_inherits WHERE inhparent = 'tasks'::regclass",
+                        String.class)
+                .forEach(partition -> jdbcTemplate.execute("ALTER TABLE " + partition + " SET (autovacuum_enabled = off)"));
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, priority, due_date, category, is_deleted, created_at, updated_at)
+                SELECT 'task ' || n,
+                       n % 4 = 0,
+                       n % 200,
+                       (ARRAY ['LOW', 'MEDIUM', 'HIGH'])[n % 3 + 1],
+                       now() + (n % 30 - 15) * interval '1 day',
+                       'category ' || n % 25,
+                       n % 10 = 0,
+                       now() - n * interval '1 minute',
+                       now()
+                FROM generate_series(1, 40000) AS n
+                """);
+        jdbcTemplate.execute("ANALYZE tasks");
+        jdbcTemplate.execute("SET plan_cache_mode = force_generic_plan");
+    }
+
+    @Test
+    @DisplayName("findAllByUserId should read idx_tasks_user_created in order")
+    void findAllByUserIdShouldUseCreatedIndex() {
+        final String plan = explain("""
+                SELECT * FROM tasks WHERE user_id = $1 AND is_deleted = false
+                ORDER BY created_at DESC, id DESC LIMIT 21
+                """, USER_ID);
+
+        assertUsesIndex(plan, "idx_tasks_user_created");
+        assertFalse(SORT_NODE.matcher(plan).find(), () -> "Expected no explicit sort:\n" + plan);
+    }
+
+    @Test
+    @DisplayName("user-scoped statements should be pruned to the user's partition, also with generic plans")
+    void userScopedStatementsShouldBePrunedToOnePartition() {
+        for (final String sql : List.of(
+                "SELECT * FROM tasks WHERE user_id = $1 AND is_deleted = false ORDER BY created_at DESC, id DESC LIMIT 21",
+                "SELECT count(id) FROM tasks WHERE user_id = $1 AND is_deleted = false AND completed = false",
+                "SELECT * FROM tasks WHERE id = 5 AND user_id = $1",
+                "UPDATE tasks SET completed = true WHERE id = 5 AND user_id = $1",
+                "DELETE FROM tasks WHERE id IN (5, 6) AND user_id = $1")) {
+            final String plan = explain(sql, USER_ID);
+
+            assertTrue(plan.contains("Subplans Removed: " + (PARTITIONS - 1)) || countPartitionScans(plan) == 1,
+                    () -> "Expected a single partition in plan:\n" + plan);
+        }
+    }
+
+    @Test
+    @DisplayName("keyset continuation should seek idx_tasks_user_created")
+    void keysetContinuationShouldUseCreatedIndex() {
+        final String plan = explain("""
+                SELECT * FROM tasks WHERE user_id = $1 AND is_deleted = false
+                AND (created_at < now() - interval '1 day' OR (created_at = now() - interval '1 day' AND id < $2))
+                ORDER BY created_at DESC, id DESC LIMIT 21
+                """, USER_ID, 100L);
+
+        assertUsesIndex(plan, "idx_tasks_user_created");
+    }
+
+    @Test
+    @DisplayName("findChangedSince should seek idx_tasks_user_updated past the token position, tombstones included")
+    void changedSinceShouldUseUpdatedIndex() {
+        final String plan = explain("""
+                SELECT * FROM tasks WHERE user_id = $1
+                AND (updated_at, id) > (now() - interval '1 hour', $2)
+                ORDER BY updated_at, id LIMIT 501
+                """, USER_ID, 0L);
+
+        assertUsesIndex(plan, "idx_tasks_user_updated");
+        assertTrue(plan.contains("Index Cond: ((user_id = $1) AND (ROW(updated_at, id) >"),
+                () -> "Expected the token position in the index condition:\n" + plan);
+    }
+
+    @Test
+    @DisplayName("findOverdueTasks and countOverdueTasks should use idx_tasks_user_due_date")
+    void overdueQueriesShouldUseDueDateIndex() {
+        assertUsesIndex(explain("""
+                SELECT * FROM tasks WHERE user_id = $1 AND is_deleted = false
+                AND due_date <= now() AND completed = false
+                """, USER_ID), "idx_tasks_user_due_date");
+        assertUsesIndex(explain("""
+                SELECT count(id) FROM tasks WHERE user_id = $1 AND is_deleted = false
+                AND due_date <= now() AND completed = false
+                """, USER_ID), "idx_tasks_user_due_date");
+    }
+
+    @Test
+    @DisplayName("search by category should use idx_tasks_user_category")
+    void searchByCategoryShouldUseCategoryIndex() {
+        assertUsesIndex(explain("""
+                SELECT * FROM tasks WHERE user_id = $1 AND NOT is_deleted AND category = $2
+                """, USER_ID, "category 7"), "idx_tasks_user_category");
+    }
+
+    @Test
+    @DisplayName("search by priority should use a user-scoped partial index")
+    void searchByPriorityShouldUseUserScopedIndex() {
+        final String plan = explain("""
+                SELECT * FROM tasks WHERE user_id = $1 AND NOT is_deleted AND priority = $2
+                """, USER_ID, "HIGH");
+
+        assertTrue(plan.contains("idx_tasks_user_priority") || plan.contains("idx_tasks_user_created"),
+                () -> "Expected a user-scoped partial index:\n" + plan);
+    }
+
+    @Test
+    @DisplayName("title and text search should use the trigram GIN indexes for a large task list")
+    void textSearchShouldUseTrigramIndexes() {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, description, completed, user_id, priority, is_deleted, created_at, updated_at)
+                SELECT 'heavy task ' || n, 'note ' || n, false, $1, 'LOW', false, now(), now()
+                FROM generate_series(1, 30000) AS n
+                """.replace("$1", String.valueOf(HEAVY_USER_ID)));
+        // A partition of a large table holds many users; without neighbours the heavy user would be
+        // nearly all of its partition, where reading the whole partition is the cheaper plan.
+        final String partition = jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM tasks WHERE user_id = ? LIMIT 1", String.class, HEAVY_USER_ID);
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, description, completed, user_id, priority, is_deleted, created_at, updated_at)
+                SELECT 'neighbour task ' || n, 'note ' || n, false, u, 'LOW', false, now(), now()
+                FROM generate_series(2000, 3000) AS u
+                         CROSS JOIN generate_series(1, 600) AS n
+                WHERE satisfies_hash_partition('tasks'::regclass, ?, ?, u::bigint)
+                """, PARTITIONS, Integer.parseInt(partition.substring(partition.lastIndexOf('p') + 1)));
+        jdbcTemplate.execute("ANALYZE tasks");
+        jdbcTemplate.execute("SET plan_cache_mode = force_custom_plan");
+
+        assertUsesIndex(explain("""
+                SELECT * FROM tasks WHERE user_id = $1 AND NOT is_deleted AND lower(title) LIKE $2
+                """, HEAVY_USER_ID, "%task 12345%"), "idx_tasks_user_title_trgm");
+
+        final String plan = explain("""
+                SELECT * FROM tasks WHERE user_id = $1 AND NOT is_deleted
+                AND (lower(title) LIKE $2 OR lower(description) LIKE $2)
+                """, HEAVY_USER_ID, "%note 12345%");
+        assertUsesIndex(plan, "idx_tasks_user_title_trgm");
+        assertUsesIndex(plan, "idx_tasks_user_description_trgm");
+    }
+
+    private String explain(final String sql, final Object... parameters) {
+        final String statementName = "explained_" + statementCounter.incrementAndGet();
+        jdbcTemplate.execute("PREPARE " + statementName + " AS " + sql);
+        final String arguments = Arrays.stream(parameters)
+                .map(parameter -> parameter instanceof String ? "'" + parameter + "'" : parameter.toString())
+                .collect(Collectors.joining(", "));
+        final List<String> lines = jdbcTemplate.queryForList(
+                "EXPLAIN EXECUTE " + statementName + "(" + arguments + ")", String.class);
+        return String.join("\n", lines);
+    }
+
+    private long countPartitionScans(final String plan) {
+        return Pattern.compile(" on tasks_p\\d+").matcher(plan).results().count();
+    }
+
+    private void assertUsesIndex(final String plan, final String indexName) {
+        assertTrue(plan.contains(indexName), () -> "Expected " + indexName + " in plan:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), () -> "Expected no sequential scan:\n" + plan);
+    }
+}
@@ -0,0 +1,115 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TaskPartitionMover - online move into the partitioned table")
+class TaskPartitionMoverTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        final DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        migrate(dataSource, "7");
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, priority, category, is_deleted, created_at, updated_at)
+                SELECT 'task ' || n, n % 4 = 0, n % 50 + 1, 'HIGH', 'category ' || n % 5, n % 10 = 0, now(), now()
+                FROM generate_series(1, 2000) AS n
+                """);
+        migrate(dataSource, "latest");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    @DisplayName("should copy existing rows, mirror concurrent writes and swap in the partitioned table")
+    void shouldMoveRowsWhileTheyChange() {
+        final TaskPartitionMover mover = new TaskPartitionMover(jdbcTemplate, 300, Duration.ZERO, Duration.ofSeconds(5));
+        assertTrue(mover.isMovePending());
+        final List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM tasks ORDER BY id", Long.class);
+
+        mover.startMirroring();
+        jdbcTemplate.update("UPDATE tasks SET title = 'renamed before copy' WHERE id = ?", ids.get(10));
+        jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", ids.get(20));
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, priority, is_deleted, created_at, updated_at)
+                VALUES ('inserted while moving', false, 3, 'LOW', false, now(), now())
+                """);
+        mover.copyExistingRows();
+        jdbcTemplate.update("UPDATE tasks SET title = 'renamed after copy' WHERE id = ?", ids.get(30));
+        jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", ids.get(40));
+        mover.buildIndexes();
+        jdbcTemplate.update("UPDATE tasks SET completed = true WHERE id = ?", ids.get(50));
+        mover.swap();
+
+        assertFalse(mover.isMovePending());
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = 'tasks'::regclass", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM ((SELECT * FROM tasks EXCEPT SELECT * FROM tasks_unpartitioned)
+                                      UNION ALL (SELECT * FROM tasks_unpartitioned EXCEPT SELECT * FROM tasks)) AS difference
+                """, Integer.class));
+        assertEquals(1999, jdbcTemplate.queryForObject("SELECT count(*) FROM tasks", Integer.class));
+        assertEquals(List.of("renamed before copy", "renamed after copy"), jdbcTemplate.queryForList(
+                "SELECT title FROM tasks WHERE id IN (?, ?) ORDER BY id", String.class, ids.get(10), ids.get(30)));
+
+        final long counterTotal = counterTotal();
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, priority, is_deleted, created_at, updated_at)
+                VALUES ('inserted after swap', false, 3, 'LOW', false, now(), now())
+                """);
+        assertEquals(counterTotal + 1, counterTotal());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks WHERE title = 'inserted after swap' AND id > ?", Integer.class,
+                ids.get(ids.size() - 1)));
+        final long version = userVersion(3);
+        jdbcTemplate.update("UPDATE tasks SET title = 'renamed after swap' WHERE title = 'inserted after swap'");
+        assertEquals(version + 1, userVersion(3));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE tablename = 'tasks_p00' AND indexname = 'idx_tasks_user_created_p00'",
+                Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE tablename = 'tasks' AND indexname = 'idx_tasks_deleted_at'",
+                Integer.class));
+    }
+
+    private static long counterTotal() {
+        return jdbcTemplate.queryForObject("SELECT coalesce(sum(task_count), 0) FROM task_counters", Long.class);
+    }
+
+    private static long userVersion(final long userId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM task_versions WHERE user_id = ?", Long.class, userId);
+    }
+
+    private static void migrate(final DataSource dataSource, final String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .target(target)
+                .placeholders(Map.of("partitionInlineRowLimit", "0"))
+                .load()
+                .migrate();
+    }
+}
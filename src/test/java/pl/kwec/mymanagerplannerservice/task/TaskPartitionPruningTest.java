@@ -0,0 +1,117 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchUpdateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskCreateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskCursorPageResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskUpdateRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "pl.kwec.mymanagerplannerservice.task.TaskPartitionPruningTest$RecordingStatementInspector")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import(TaskService.class)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("TaskService - partition pruning of generated SQL")
+class TaskPartitionPruningTest {
+
+    private static final long USER_ID = 1L;
+    private static final Pattern TASKS_TABLE = Pattern.compile("\\btasks\\b");
+    private static final Pattern USER_PREDICATE = Pattern.compile("\\buser_id\\s*(=\\s*\\?|in\\s*\\()");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE tasks, task_counters");
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, priority, category, due_date, is_deleted, created_at, updated_at)
+                SELECT 'task ' || n, false, ?, 'HIGH', 'work', now() - interval '1 day', false,
+                       now() - n * interval '1 minute', now()
+                FROM generate_series(1, 10) AS n
+                """, USER_ID);
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("every statement reading or changing tasks of a user should filter on user_id")
+    void everyTaskStatementShouldCarryTheUserId() {
+        final List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM tasks ORDER BY id", Long.class);
+
+        taskService.createTask(TaskCreateRequest.builder().title("created").build(), USER_ID);
+        taskService.createTasks(List.of(TaskCreateRequest.builder().title("batch").build()), USER_ID);
+        taskService.updateTask(ids.get(0), TaskUpdateRequest.builder().title("renamed").build(), USER_ID);
+        taskService.updateTasks(List.of(new TaskBatchUpdateRequest(ids.get(1),
+                TaskUpdateRequest.builder().completed(true).build())), USER_ID);
+        taskService.deleteTasks(List.of(ids.get(2)), USER_ID);
+        taskService.deleteTask(ids.get(3), USER_ID);
+        taskService.updateTaskCompletion(ids.get(4), true, USER_ID);
+        taskService.updateCompletionMatching(USER_ID, Task.Priority.LOW, null, true);
+        taskService.deleteMatching(USER_ID, Task.Priority.LOW, null, null);
+        taskService.getUserTasks(USER_ID, PageRequest.of(0, 5));
+        taskService.getUserTasks(USER_ID);
+        taskService.exportUserTasks(USER_ID, task -> { });
+        final TaskCursorPageResponse page = taskService.scrollUserTasks(USER_ID, null, 3);
+        taskService.scrollUserTasks(USER_ID, page.getNextCursor(), 3);
+        taskService.searchTasks(USER_ID, "task", null, Task.Priority.HIGH, false, "work", PageRequest.of(0, 5));
+        taskService.scrollSearchTasks(USER_ID, "task", null, null, null, null, page.getNextCursor(), 3);
+        taskService.getTaskStatistics(USER_ID, null);
+        taskService.getOverdueTasks(USER_ID, null);
+        taskService.getTasksETag(USER_ID);
+        taskService.syncTasks(USER_ID, taskService.syncTasks(USER_ID, null, 5).getNextToken(), 5);
+        taskRepository.findOverdueDeadlines(Set.of(USER_ID), ids, LocalDateTime.now());
+
+        final List<String> taskStatements = RecordingStatementInspector.STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> TASKS_TABLE.matcher(sql).find() && !sql.startsWith("insert"))
+                .toList();
+        assertFalse(taskStatements.isEmpty());
+        for (final String sql : taskStatements) {
+            final int where = sql.indexOf(" where ");
+            assertTrue(where >= 0 && USER_PREDICATE.matcher(sql.substring(where)).find(),
+                    () -> "Statement cannot be pruned to a partition:\n" + sql);
+        }
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(final String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
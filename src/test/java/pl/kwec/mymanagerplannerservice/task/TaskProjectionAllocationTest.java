@@ -0,0 +1,111 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@DisplayName("TaskRepository - allocation of entity reads vs DTO projections")
+class TaskProjectionAllocationTest {
+
+    private static final long USER_ID = 1L;
+    private static final int ROWS = 2_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, description, completed, user_id, priority, due_date, category, is_deleted, created_at, updated_at)
+                SELECT 'task ' || n, 'description ' || n, n % 4 = 0, ?, 'MEDIUM', now(), 'category ' || n % 5, false,
+                       now() - n * interval '1 minute', now()
+                FROM generate_series(1, ?) AS n
+                """, USER_ID, ROWS);
+    }
+
+    @Test
+    @DisplayName("listing a user's tasks should allocate less through the projection query")
+    void listingShouldAllocateLessWithProjection() {
+        final long entityBytes = measure(() -> taskRepository.findAll(activeTasks()).stream()
+                .map(TaskProjectionAllocationTest::toResponse)
+                .toList());
+        final long projectionBytes = measure(() -> taskRepository.findResponsesByUserId(USER_ID));
+
+        report("list", entityBytes, projectionBytes);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    @Test
+    @DisplayName("specification search should allocate less through the projection fragment")
+    void searchShouldAllocateLessWithProjection() {
+        final Pageable pageable = PageRequest.of(0, ROWS);
+        final long entityBytes = measure(() -> taskRepository.findAll(activeTasks(), pageable)
+                .map(TaskProjectionAllocationTest::toResponse)
+                .getContent());
+        final long projectionBytes = measure(() -> taskRepository.findResponses(activeTasks(), pageable).getContent());
+
+        report("search", entityBytes, projectionBytes);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    private long measure(final Supplier<List<TaskResponse>> read) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertEquals(ROWS, read.get().size());
+            entityManager.clear();
+        }
+        final long before = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            read.get();
+            entityManager.clear();
+        }
+        return (threadBean.getCurrentThreadAllocatedBytes() - before) / MEASURED_ITERATIONS;
+    }
+
+    private void report(final String path, final long entityBytes, final long projectionBytes) {
+        log.info("{} of {} rows: entities {} KiB/op, projection {} KiB/op ({} bytes/row saved)",
+                path, ROWS, entityBytes / 1024, projectionBytes / 1024, (entityBytes - projectionBytes) / ROWS);
+    }
+
+    private static Specification<Task> activeTasks() {
+        return TaskSpecification.byUserId(USER_ID).and(TaskSpecification.notDeleted());
+    }
+
+    private static TaskResponse toResponse(final Task task) {
+        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+                task.getPriority(), task.getDueDate(), task.getCategory(), task.getCreatedAt(), task.getUpdatedAt());
+    }
+}
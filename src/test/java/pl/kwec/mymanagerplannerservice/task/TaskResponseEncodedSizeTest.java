@@ -0,0 +1,38 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Page;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encoded size per task of the page bodies measured by {@link TaskResponseSerializationBenchmark}, which
+ * reports timing only.
+ */
+@Slf4j
+@DisplayName("TaskResponse - encoded page size per task")
+class TaskResponseEncodedSizeTest {
+
+    private static final int PAGE_SIZE = 100;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"json-slim", "smile", "cbor"})
+    @DisplayName("should encode a task page in fewer bytes per task than the JSON page")
+    void shouldBeSmallerThanJson(final String encoding) throws JsonProcessingException {
+        final Page<TaskResponse> page = TaskResponseSerializationBenchmark.page(PAGE_SIZE);
+        final int json = encodedSize("json", page);
+        final int encoded = encodedSize(encoding, page);
+
+        log.info("{}: {} bytes per task, json: {} bytes per task", encoding, encoded / PAGE_SIZE, json / PAGE_SIZE);
+        assertTrue(encoded < json, () -> encoding + " " + encoded + "B vs JSON " + json + "B for " + PAGE_SIZE + " tasks");
+    }
+
+    private static int encodedSize(final String encoding, final Page<TaskResponse> page) throws JsonProcessingException {
+        return TaskResponseSerializationBenchmark.objectMapper(encoding).writeValueAsBytes(page).length;
+    }
+}
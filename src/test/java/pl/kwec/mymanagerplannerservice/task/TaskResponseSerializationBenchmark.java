@@ -0,0 +1,95 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode;
+import org.springframework.data.web.config.SpringDataJacksonConfiguration;
+import org.springframework.data.web.config.SpringDataWebSettings;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pl.kwec.mymanagerplannerservice.config.BinaryEncodingConfig;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson serialization of the {@code GET /tasks} response body, using the same builder defaults
+ * Spring Boot applies to the MVC object mapper. Compares the negotiable encodings as served (JSON keeps the
+ * original page shape, Smile and CBOR use the slim envelope) plus JSON in the slim envelope ({@code json-slim}),
+ * timing only; the encoded size per task is checked by {@link TaskResponseEncodedSizeTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"json", "json-slim", "smile", "cbor"})
+    private String encoding;
+
+    private ObjectMapper objectMapper;
+    private Page<TaskResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = objectMapper(encoding);
+        page = page(pageSize);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    static Page<TaskResponse> page(final int pageSize) {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<TaskResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> TaskResponse.builder()
+                        .id(id)
+                        .title("Task " + id)
+                        .description("Description of task " + id)
+                        .completed(id % 3 == 0)
+                        .priority(Task.Priority.values()[(int) (id % 3)])
+                        .dueDate(now.plusDays(id))
+                        .category("category " + id % 5)
+                        .createdAt(now.minusDays(id))
+                        .updatedAt(now)
+                        .build())
+                .toList();
+        return new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    static ObjectMapper objectMapper(final String encoding) {
+        final Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return switch (encoding) {
+            case "json-slim" -> builder.modulesToInstall(new SpringDataJacksonConfiguration.PageModule(
+                    new SpringDataWebSettings(PageSerializationMode.VIA_DTO))).build();
+            case "smile" -> new BinaryEncodingConfig().smileHttpMessageConverter(builder).getObjectMapper();
+            case "cbor" -> new BinaryEncodingConfig().cborHttpMessageConverter(builder).getObjectMapper();
+            default -> builder.build();
+        };
+    }
+}
@@ -0,0 +1,194 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchItemResult;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskBatchUpdateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskCreateRequest;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskUpdateRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskService - batch operations")
+class TaskServiceBatchTest {
+
+    private TaskService taskService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService(taskRepository, eventPublisher, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("should persist valid items in one saveAll and report invalid ones in place")
+    void shouldCreateValidItemsAndReportInvalidOnes() {
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            final List<Task> tasks = invocation.getArgument(0);
+            long id = 100;
+            for (final Task task : tasks) {
+                task.setId(id++);
+            }
+            return tasks;
+        });
+
+        final TaskBatchResponse response = taskService.createTasks(Arrays.asList(
+                TaskCreateRequest.builder().title("first").build(),
+                TaskCreateRequest.builder().title(" ").build(),
+                null,
+                TaskCreateRequest.builder().title("second").build()
+        ), 1L);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(List.of(201, 400, 400, 201), statuses(response));
+        assertEquals(100L, response.getResults().get(0).getId());
+        assertEquals("Task title cannot be empty", response.getResults().get(1).getMessage());
+        assertEquals("Task data cannot be null", response.getResults().get(2).getMessage());
+        assertEquals(101L, response.getResults().get(3).getTask().getId());
+        verify(taskRepository).flush();
+    }
+
+    @Test
+    @DisplayName("should report missing and foreign tasks per item when updating")
+    void shouldReportMissingAndForeignTasksOnUpdate() {
+        final Task own = Task.builder().id(1L).userId(1L).title("own").build();
+        final Task foreign = Task.builder().id(2L).userId(2L).title("foreign").build();
+        when(taskRepository.findAllByIdInAndUserId(List.of(1L, 2L, 3L), 1L)).thenReturn(List.of(own));
+        when(taskRepository.findExistingIds(List.of(2L, 3L))).thenReturn(List.of(2L));
+        final TaskUpdateRequest changes = TaskUpdateRequest.builder().completed(true).build();
+
+        final TaskBatchResponse response = taskService.updateTasks(List.of(
+                new TaskBatchUpdateRequest(1L, changes),
+                new TaskBatchUpdateRequest(2L, changes),
+                new TaskBatchUpdateRequest(3L, changes),
+                new TaskBatchUpdateRequest(0L, changes)
+        ), 1L);
+
+        assertEquals(List.of(200, 403, 404, 400), statuses(response));
+        assertTrue(own.isCompleted());
+        assertFalse(foreign.isCompleted());
+        verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(TaskDueDateChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("should announce due dates of created tasks to the overdue scheduler")
+    void shouldPublishDueDatesOfCreatedTasks() {
+        final LocalDateTime dueDate = LocalDateTime.of(2030, 1, 1, 12, 0);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            final List<Task> tasks = invocation.getArgument(0);
+            long id = 100;
+            for (final Task task : tasks) {
+                task.setId(id++);
+            }
+            return tasks;
+        });
+
+        taskService.createTasks(List.of(
+                TaskCreateRequest.builder().title("no deadline").build(),
+                TaskCreateRequest.builder().title("deadline").dueDate(dueDate).build()
+        ), 1L);
+
+        verify(eventPublisher).publishEvent(new TaskDueDateChangedEvent(101L, 1L, dueDate));
+        verify(eventPublisher).publishEvent(any(TaskDueDateChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("should soft delete owned tasks and leave the rest untouched")
+    void shouldSoftDeleteOwnedTasks() {
+        final Task own = Task.builder().id(1L).userId(1L).title("own").build();
+        final Task foreign = Task.builder().id(2L).userId(2L).title("foreign").build();
+        when(taskRepository.findAllByIdInAndUserId(List.of(1L, 2L), 1L)).thenReturn(List.of(own));
+        when(taskRepository.findExistingIds(List.of(2L))).thenReturn(List.of(2L));
+
+        final TaskBatchResponse response = taskService.deleteTasks(List.of(1L, 2L), 1L);
+
+        assertEquals(List.of(204, 403), statuses(response));
+        assertTrue(own.isDeleted());
+        assertFalse(foreign.isDeleted());
+    }
+
+    @Test
+    @DisplayName("should report items that fail bean validation instead of failing the batch at flush")
+    void shouldReportOverlongFieldsPerItem() {
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        final Task own = Task.builder().id(1L).userId(1L).title("own").category("work").build();
+        when(taskRepository.findAllByIdInAndUserId(List.of(1L), 1L)).thenReturn(List.of(own));
+        final String overlong = "x".repeat(256);
+
+        final TaskBatchResponse created = taskService.createTasks(List.of(
+                TaskCreateRequest.builder().title(overlong).build(),
+                TaskCreateRequest.builder().title("valid").build()
+        ), 1L);
+        final TaskBatchResponse updated = taskService.updateTasks(List.of(
+                new TaskBatchUpdateRequest(1L, TaskUpdateRequest.builder().category(overlong).build())
+        ), 1L);
+
+        assertEquals(List.of(400, 201), statuses(created));
+        assertEquals("Task title cannot be longer than 255 characters", created.getResults().get(0).getMessage());
+        assertEquals(List.of(400), statuses(updated));
+        assertEquals("Task category cannot be longer than 255 characters", updated.getResults().get(0).getMessage());
+        assertEquals("work", own.getCategory());
+    }
+
+    @Test
+    @DisplayName("should treat already deleted tasks as a no-op, like the single delete")
+    void shouldNotDeleteTasksTwice() {
+        final LocalDateTime deletedAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        final Task deleted = Task.builder().id(1L).userId(1L).title("gone").deleted(true).deletedAt(deletedAt).build();
+        when(taskRepository.findAllByIdInAndUserId(List.of(1L), 1L)).thenReturn(List.of(deleted));
+
+        final TaskBatchResponse response = taskService.deleteTasks(List.of(1L, 1L), 1L);
+
+        assertEquals(List.of(204, 204), statuses(response));
+        assertEquals(deletedAt, deleted.getDeletedAt());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("should reject empty and oversized batches")
+    void shouldRejectInvalidBatchSizes() {
+        final List<Long> oversized = new ArrayList<>(Collections.nCopies(1001, 1L));
+
+        assertEquals("Batch size is invalid", assertThrows(IllegalArgumentException.class,
+                () -> taskService.deleteTasks(List.of(), 1L)).getMessage());
+        assertEquals("Batch size is invalid", assertThrows(IllegalArgumentException.class,
+                () -> taskService.deleteTasks(oversized, 1L)).getMessage());
+        verifyNoInteractions(taskRepository);
+    }
+
+    private List<Integer> statuses(final TaskBatchResponse response) {
+        return response.getResults().stream()
+                .map(TaskBatchItemResult::getStatus)
+                .toList();
+    }
+}
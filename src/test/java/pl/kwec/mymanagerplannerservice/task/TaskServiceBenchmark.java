@@ -0,0 +1,107 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskUpdateRequest;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link TaskService} that do not touch the database. Criteria predicates are built
+ * against a metadata-only Hibernate session factory, so no connection is opened.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private final TaskService taskService = new TaskService(null, null, null);
+
+    private Task task;
+    private TaskUpdateRequest updateRequest;
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final LocalDateTime now = LocalDateTime.now();
+        task = Task.builder()
+                .id(42L)
+                .title("Prepare quarterly report")
+                .description("Collect numbers from all teams")
+                .userId(7L)
+                .priority(Task.Priority.HIGH)
+                .dueDate(now.plusDays(3))
+                .category("work")
+                .createdAt(now.minusDays(1))
+                .updatedAt(now)
+                .build();
+        updateRequest = TaskUpdateRequest.builder()
+                .title("Prepare quarterly report v2")
+                .completed(true)
+                .priority(Task.Priority.MEDIUM)
+                .category("finance")
+                .build();
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Task.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public TaskResponse mapToResponse() {
+        return taskService.mapToResponse(task);
+    }
+
+    @Benchmark
+    public Task updateTaskFields() {
+        taskService.updateTaskFields(task, updateRequest);
+        return task;
+    }
+
+    @Benchmark
+    public Predicate searchSpecificationAllFilters() {
+        return toPredicate(taskService.buildSearchSpecification(
+                7L, "report", "quarterly", Task.Priority.HIGH, false, "work"));
+    }
+
+    @Benchmark
+    public Predicate searchSpecificationUserOnly() {
+        return toPredicate(taskService.buildSearchSpecification(7L, null, null, null, null, null));
+    }
+
+    private Predicate toPredicate(final Specification<Task> spec) {
+        final CriteriaQuery<Task> query = criteriaBuilder.createQuery(Task.class);
+        final Root<Task> root = query.from(Task.class);
+        return spec.toPredicate(root, query, criteriaBuilder);
+    }
+}
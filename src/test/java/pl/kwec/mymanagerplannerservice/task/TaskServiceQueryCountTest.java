@@ -0,0 +1,154 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kwec.mymanagerplannerservice.config.QueryCountingConfig;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskCreateRequest;
+
+import java.util.Collections;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static pl.kwec.mymanagerplannerservice.support.QueryCountAssertions.assertStatements;
+
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import({TaskService.class, QueryCountingConfig.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+@DisplayName("TaskService - SQL statements per operation")
+class TaskServiceQueryCountTest {
+
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE tasks, task_counters");
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, priority, category, is_deleted, created_at, updated_at)
+                SELECT 'task ' || n, n % 2 = 0, ?, 'HIGH', 'work', false, now() - n * interval '1 minute', now()
+                FROM generate_series(1, 25) AS n
+                """, USER_ID);
+    }
+
+    @Test
+    @DisplayName("searchTasks should execute exactly 2 statements for a full page")
+    void searchTasksShouldSelectPageAndCount() {
+        assertStatements(() -> taskService.searchTasks(USER_ID, null, null, Task.Priority.HIGH, null, "work",
+                PageRequest.of(0, 20)))
+                .total(2)
+                .selects(2);
+    }
+
+    @Test
+    @DisplayName("searchTasks should skip the count query when the first page is not full")
+    void searchTasksShouldSkipCountForPartialPage() {
+        assertStatements(() -> taskService.searchTasks(USER_ID, null, null, null, true, null,
+                PageRequest.of(0, 20)))
+                .total(1);
+    }
+
+    @Test
+    @DisplayName("getTaskStatistics should read counters and the overdue count only")
+    void statisticsShouldExecuteTwoSelects() {
+        assertStatements(() -> taskService.getTaskStatistics(USER_ID, null))
+                .total(2)
+                .selects(2);
+    }
+
+    @Test
+    @DisplayName("deleteTask should be a single update")
+    void deleteTaskShouldBeSingleUpdate() {
+        final Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tasks", Long.class);
+
+        assertStatements(() -> {
+            taskService.deleteTask(id, USER_ID);
+            return null;
+        })
+                .total(1)
+                .updates(1);
+    }
+
+    @Test
+    @DisplayName("getTasksETag should be a single select that changes with soft and hard deletes")
+    void eTagShouldBeSingleSelectAndTrackDeletes() {
+        final String initial = taskService.getTasksETag(USER_ID);
+        assertStatements(() -> taskService.getTasksETag(USER_ID))
+                .total(1)
+                .selects(1);
+
+        final Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tasks", Long.class);
+        taskService.deleteTask(id, USER_ID);
+        final String afterSoftDelete = taskService.getTasksETag(USER_ID);
+        jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", id);
+
+        assertNotEquals(initial, afterSoftDelete);
+        assertNotEquals(afterSoftDelete, taskService.getTasksETag(USER_ID));
+        assertTrue(afterSoftDelete.startsWith("W/\""), afterSoftDelete);
+    }
+
+    @Test
+    @DisplayName("getTasksETag should change with writes that keep the task count and the last updatedAt")
+    void eTagShouldTrackEveryWrite() {
+        final Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tasks", Long.class);
+        final String initial = taskService.getTasksETag(USER_ID);
+
+        jdbcTemplate.update("UPDATE tasks SET title = 'renamed', updated_at = updated_at WHERE id = ?", id);
+        final String afterRename = taskService.getTasksETag(USER_ID);
+        jdbcTemplate.update("""
+                WITH moved AS (DELETE FROM tasks WHERE id = ? RETURNING *)
+                INSERT INTO tasks_archive SELECT moved.*, now() FROM moved
+                """, id);
+
+        assertNotEquals(initial, afterRename);
+        assertNotEquals(afterRename, taskService.getTasksETag(USER_ID));
+    }
+
+    @Test
+    @DisplayName("createTasks should send inserts in JDBC batches of 50")
+    void createTasksShouldBatchInserts() {
+        final TaskCreateRequest request = TaskCreateRequest.builder().title("imported").build();
+
+        assertStatements(() -> taskService.createTasks(Collections.nCopies(120, request), USER_ID))
+                .inserts(3)
+                .updates(0)
+                .totalAtMost(6);
+    }
+
+    @Test
+    @DisplayName("updateCompletionMatching should find the deadlines of the reopened tasks with one extra select")
+    void bulkReopenShouldSelectReopenedDeadlines(@Autowired final ApplicationEvents events) {
+        jdbcTemplate.update("UPDATE tasks SET due_date = now() + interval '1 hour' WHERE id % 5 <> 0");
+        final long reopenedWithDeadline = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE completed AND due_date IS NOT NULL", Long.class);
+
+        assertStatements(() -> taskService.updateCompletionMatching(USER_ID, null, "work", false))
+                .total(2)
+                .updates(1)
+                .selects(1);
+
+        assertEquals(reopenedWithDeadline, events.stream(TaskDueDateChangedEvent.class).count());
+    }
+}
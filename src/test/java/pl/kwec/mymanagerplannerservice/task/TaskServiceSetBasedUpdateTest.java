@@ -0,0 +1,155 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.kwec.mymanagerplannerservice.exception.TaskNotFoundException;
+import pl.kwec.mymanagerplannerservice.exception.UnauthorizedAccessException;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskUpdateRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskService - set-based updates")
+class TaskServiceSetBasedUpdateTest {
+
+    private TaskService taskService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService(taskRepository, eventPublisher, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("should soft delete with a single update when the owner matches")
+    void shouldSoftDeleteWithoutLoadingTask() {
+        when(taskRepository.softDeleteByIdAndUserId(eq(5L), eq(1L), any(LocalDateTime.class))).thenReturn(1);
+
+        taskService.deleteTask(5L, 1L);
+
+        verify(taskRepository, never()).findOwnerIdById(anyLong());
+        verify(taskRepository, never()).findById(anyLong());
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(1L, TaskChangeType.DELETED, 5L, null));
+    }
+
+    @Test
+    @DisplayName("should distinguish missing, foreign and already deleted tasks when nothing was updated")
+    void shouldResolveUnmatchedDelete() {
+        when(taskRepository.softDeleteByIdAndUserId(anyLong(), eq(1L), any(LocalDateTime.class))).thenReturn(0);
+        when(taskRepository.findOwnerIdById(5L)).thenReturn(Optional.empty());
+        when(taskRepository.findOwnerIdById(6L)).thenReturn(Optional.of(2L));
+        when(taskRepository.findOwnerIdById(7L)).thenReturn(Optional.of(1L));
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(5L, 1L));
+        assertThrows(UnauthorizedAccessException.class, () -> taskService.deleteTask(6L, 1L));
+        assertDoesNotThrow(() -> taskService.deleteTask(7L, 1L));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("should report a deleted task as not found when toggling completion")
+    void shouldRejectCompletionOfDeletedTask() {
+        when(taskRepository.updateCompletionByIdAndUserId(eq(7L), eq(1L), eq(true), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(taskRepository.findOwnerIdById(7L)).thenReturn(Optional.of(1L));
+
+        final TaskNotFoundException exception = assertThrows(TaskNotFoundException.class,
+                () -> taskService.updateTaskCompletion(7L, true, 1L));
+        assertEquals("Task not found", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("should load the task to update by id and owner, resolving the owner only when it is not found")
+    void shouldLoadTaskToUpdateWithinOwnerPartition() {
+        final Task own = Task.builder().id(5L).userId(1L).title("own").build();
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.of(own));
+        when(taskRepository.findByIdAndUserId(6L, 1L)).thenReturn(Optional.empty());
+        when(taskRepository.findOwnerIdById(6L)).thenReturn(Optional.of(2L));
+        final TaskUpdateRequest request = TaskUpdateRequest.builder().title("renamed").build();
+
+        assertEquals("renamed", taskService.updateTask(5L, request, 1L).getTitle());
+        assertThrows(UnauthorizedAccessException.class, () -> taskService.updateTask(6L, request, 1L));
+        verify(taskRepository, never()).findOwnerIdById(5L);
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("should require a filter for bulk delete")
+    void shouldRequireFilterForBulkDelete() {
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> taskService.deleteMatching(1L, null, " ", null));
+
+        assertEquals("At least one filter is required", exception.getMessage());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should pass blank category as no filter to bulk completion")
+    void shouldNormalizeBlankCategoryForBulkCompletion() {
+        when(taskRepository.updateCompletionMatching(eq(1L), eq(Task.Priority.HIGH), eq(null), anyBoolean(),
+                any(LocalDateTime.class))).thenReturn(3);
+
+        assertEquals(3, taskService.updateCompletionMatching(1L, Task.Priority.HIGH, "", true).getAffectedCount());
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(1L, TaskChangeType.BULK_CHANGED, null, null));
+    }
+
+    @Test
+    @DisplayName("should hand the deadline of a reopened task back to the overdue scheduler")
+    void shouldPublishDeadlineOnReopen() {
+        final LocalDateTime dueDate = LocalDateTime.now().plusMinutes(5);
+        when(taskRepository.updateCompletionByIdAndUserId(eq(7L), eq(1L), anyBoolean(), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(taskRepository.findUpcomingDeadline(eq(7L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new TaskDeadline(7L, 1L, dueDate)));
+
+        taskService.updateTaskCompletion(7L, true, 1L);
+        verify(taskRepository, never()).findUpcomingDeadline(anyLong(), anyLong(), any(LocalDateTime.class));
+
+        taskService.updateTaskCompletion(7L, false, 1L);
+        verify(eventPublisher).publishEvent(new TaskDueDateChangedEvent(7L, 1L, dueDate));
+    }
+
+    @Test
+    @DisplayName("should publish the deadline of every task a bulk update reopened, matched by the same timestamp")
+    void shouldPublishDeadlinesOnBulkReopen() {
+        final LocalDateTime dueDate = LocalDateTime.now().plusMinutes(5);
+        final ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(taskRepository.updateCompletionMatching(eq(1L), eq(null), eq("work"), eq(false), now.capture()))
+                .thenReturn(2);
+        when(taskRepository.findReopenedDeadlines(eq(1L), eq(null), eq("work"), any(LocalDateTime.class)))
+                .thenReturn(List.of(new TaskDeadline(7L, 1L, dueDate), new TaskDeadline(8L, 1L, dueDate)));
+
+        taskService.updateCompletionMatching(1L, null, "work", false);
+
+        verify(taskRepository).findReopenedDeadlines(1L, null, "work", now.getValue());
+        verify(eventPublisher).publishEvent(new TaskDueDateChangedEvent(7L, 1L, dueDate));
+        verify(eventPublisher).publishEvent(new TaskDueDateChangedEvent(8L, 1L, dueDate));
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(1L, TaskChangeType.BULK_CHANGED, null, null));
+    }
+}
@@ -0,0 +1,99 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskStatisticsResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskService - getTaskStatistics")
+class TaskServiceStatisticsTest {
+
+    private TaskService taskService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService(taskRepository, eventPublisher, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("should fold counter buckets into totals and breakdowns")
+    void shouldFoldCounterBuckets() {
+        when(taskRepository.findStatisticsCounters(1L)).thenReturn(List.of(
+                new Row(true, Task.Priority.HIGH, "work", 3L),
+                new Row(false, Task.Priority.HIGH, "work", 2L),
+                new Row(false, Task.Priority.LOW, "home", 4L),
+                new Row(false, Task.Priority.LOW, null, 1L)
+        ));
+        when(taskRepository.countOverdueTasks(eq(1L), any(LocalDateTime.class))).thenReturn(3L);
+
+        final TaskStatisticsResponse statistics = taskService.getTaskStatistics(1L, null);
+
+        assertEquals(3L, statistics.getCompletedCount());
+        assertEquals(7L, statistics.getPendingCount());
+        assertEquals(10L, statistics.getTotalCount());
+        assertEquals(3L, statistics.getOverdueCount());
+        assertEquals(30.0, statistics.getCompletionPercentage());
+        assertEquals(Map.of(Task.Priority.LOW, 5L, Task.Priority.MEDIUM, 0L, Task.Priority.HIGH, 5L),
+                statistics.getCountByPriority());
+        assertEquals(Map.of("work", 5L, "home", 4L), statistics.getCountByCategory());
+    }
+
+    @Test
+    @DisplayName("should return zeroed statistics when user has no tasks")
+    void shouldReturnZeroedStatisticsForNoTasks() {
+        when(taskRepository.findStatisticsCounters(2L)).thenReturn(List.of());
+
+        final TaskStatisticsResponse statistics = taskService.getTaskStatistics(2L, null);
+
+        assertEquals(0L, statistics.getTotalCount());
+        assertEquals(0.0, statistics.getCompletionPercentage());
+        assertEquals(Map.of(), statistics.getCountByCategory());
+        verify(taskRepository).countOverdueTasks(eq(2L), any(LocalDateTime.class));
+    }
+
+    private record Row(Boolean completed, Task.Priority priority, String category,
+                       Long taskCount) implements TaskStatisticsRow {
+
+        @Override
+        public Boolean getCompleted() {
+            return completed;
+        }
+
+        @Override
+        public Task.Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public Long getTaskCount() {
+            return taskCount;
+        }
+    }
+}
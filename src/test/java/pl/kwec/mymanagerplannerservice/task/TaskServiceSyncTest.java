@@ -0,0 +1,133 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskSyncResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskService - syncTasks")
+class TaskServiceSyncTest {
+
+    private static final LocalDateTime AN_HOUR_AGO = LocalDateTime.now().minusHours(1);
+
+    private TaskService taskService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService(taskRepository, eventPublisher, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("should split changes into upserts and tombstones after the token position")
+    void shouldReturnUpsertsAndTombstones() {
+        final String since = new TaskCursor(AN_HOUR_AGO, 4L).encode();
+        when(taskRepository.findChangedSince(1L, AN_HOUR_AGO, 4L, Limit.of(3))).thenReturn(List.of(
+                task(5L, AN_HOUR_AGO.plusMinutes(1), false),
+                task(6L, AN_HOUR_AGO.plusMinutes(2), true)));
+
+        final TaskSyncResponse response = taskService.syncTasks(1L, since, 2);
+
+        assertEquals(List.of(5L), response.getUpserts().stream().map(upsert -> upsert.getId()).toList());
+        assertEquals(6L, response.getDeleted().get(0).getId());
+        assertEquals(AN_HOUR_AGO.plusMinutes(2), response.getDeleted().get(0).getDeletedAt());
+        assertFalse(response.isHasMore());
+        assertEquals(new TaskCursor(AN_HOUR_AGO.plusMinutes(2), 6L), TaskCursor.decode(response.getNextToken()));
+    }
+
+    @Test
+    @DisplayName("should merge archived tasks in token order, reporting completed ones as archived")
+    void shouldMergeArchivedTasks() {
+        final String since = new TaskCursor(AN_HOUR_AGO, 4L).encode();
+        when(taskRepository.findChangedSince(1L, AN_HOUR_AGO, 4L, Limit.of(3))).thenReturn(List.of(
+                task(5L, AN_HOUR_AGO.plusMinutes(1), false),
+                task(8L, AN_HOUR_AGO.plusMinutes(3), false)));
+        when(taskRepository.findArchivedSince(1L, AN_HOUR_AGO, 4L, Limit.of(3))).thenReturn(List.of(
+                ArchivedTask.builder().id(7L).userId(1L).archivedAt(AN_HOUR_AGO.plusMinutes(2)).build()));
+
+        final TaskSyncResponse response = taskService.syncTasks(1L, since, 2);
+
+        assertEquals(List.of(5L), response.getUpserts().stream().map(upsert -> upsert.getId()).toList());
+        assertTrue(response.getDeleted().isEmpty());
+        assertEquals(7L, response.getArchived().get(0).getId());
+        assertEquals(AN_HOUR_AGO.plusMinutes(2), response.getArchived().get(0).getArchivedAt());
+        assertTrue(response.isHasMore());
+        assertEquals(new TaskCursor(AN_HOUR_AGO.plusMinutes(2), 7L), TaskCursor.decode(response.getNextToken()));
+    }
+
+    @Test
+    @DisplayName("should continue from the last row of a full page")
+    void shouldContinueFromLastRowOfFullPage() {
+        when(taskRepository.findChangedSince(eq(1L), any(LocalDateTime.class), eq(0L), eq(Limit.of(2)))).thenReturn(List.of(
+                task(1L, AN_HOUR_AGO, false),
+                task(2L, LocalDateTime.now(), false)));
+
+        final TaskSyncResponse response = taskService.syncTasks(1L, null, 1);
+
+        assertTrue(response.isHasMore());
+        assertEquals(1, response.getUpserts().size());
+        assertEquals(new TaskCursor(AN_HOUR_AGO, 1L), TaskCursor.decode(response.getNextToken()));
+    }
+
+    @Test
+    @DisplayName("should skip tombstones on initial sync and hold a caught-up token back by the overlap")
+    void shouldSkipTombstonesOnInitialSync() {
+        final LocalDateTime justNow = LocalDateTime.now();
+        when(taskRepository.findChangedSince(eq(1L), any(LocalDateTime.class), eq(0L), eq(Limit.of(11)))).thenReturn(List.of(
+                task(1L, AN_HOUR_AGO, true),
+                task(2L, justNow, false)));
+
+        final TaskSyncResponse response = taskService.syncTasks(1L, " ", 10);
+
+        assertTrue(response.getDeleted().isEmpty());
+        assertEquals(1, response.getUpserts().size());
+        final TaskCursor next = TaskCursor.decode(response.getNextToken());
+        assertTrue(next.timestamp().isBefore(justNow.minusSeconds(4)), next::toString);
+        assertEquals(0L, next.id());
+    }
+
+    @Test
+    @DisplayName("should reject invalid tokens and page sizes")
+    void shouldRejectInvalidTokenAndSize() {
+        assertEquals("Cursor is invalid", assertThrows(IllegalArgumentException.class,
+                () -> taskService.syncTasks(1L, "garbage", 10)).getMessage());
+        assertEquals("Page size is invalid", assertThrows(IllegalArgumentException.class,
+                () -> taskService.syncTasks(1L, null, 1001)).getMessage());
+        verifyNoInteractions(taskRepository);
+    }
+
+    private static Task task(final Long id, final LocalDateTime updatedAt, final boolean deleted) {
+        return Task.builder()
+                .id(id)
+                .userId(1L)
+                .title("task " + id)
+                .updatedAt(updatedAt)
+                .deleted(deleted)
+                .deletedAt(deleted ? updatedAt : null)
+                .build();
+    }
+}
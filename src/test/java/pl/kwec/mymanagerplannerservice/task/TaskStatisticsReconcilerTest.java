@@ -0,0 +1,91 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "planner.statistics.reconciliation-batch-size=2")
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+@Import(TaskStatisticsReconciler.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("TaskStatisticsReconciler - repairing drifted counters per user batch")
+class TaskStatisticsReconcilerTest {
+
+    @Autowired
+    private TaskStatisticsReconciler reconciler;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE tasks, tasks_archive, task_counters");
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, priority, is_deleted, created_at, updated_at)
+                SELECT 'task ' || n, n % 2 = 0, n % 5 + 1, 'MEDIUM', false, now(), now()
+                FROM generate_series(1, 20) AS n
+                """);
+    }
+
+    @Test
+    @DisplayName("should repair drifted, missing and stale buckets of every user across batches")
+    void shouldRepairEveryUser() {
+        jdbcTemplate.update("UPDATE task_counters SET task_count = task_count + 3 WHERE user_id = 1 AND completed");
+        jdbcTemplate.update("DELETE FROM task_counters WHERE user_id = 5");
+        jdbcTemplate.update("INSERT INTO task_counters VALUES (9, false, 'LOW', '', 4)");
+
+        assertEquals(4, reconciler.reconcile());
+
+        assertEquals(List.of(), jdbcTemplate.queryForList("SELECT user_id FROM task_counters WHERE user_id = 9", Long.class));
+        assertEquals(List.of(2L, 2L), jdbcTemplate.queryForList(
+                "SELECT task_count FROM task_counters WHERE user_id IN (1, 5) AND completed ORDER BY user_id", Long.class));
+        assertEquals(0, reconciler.reconcile());
+    }
+
+    @Test
+    @DisplayName("should not hold back task writes of users outside the batch being reconciled")
+    void shouldOnlyLockTheBatchBeingReconciled() {
+        transactionOperations.executeWithoutResult(status -> {
+            assertEquals(2L, taskRepository.reconcileStatisticsCounters(0, 2).getLastUserId());
+
+            assertDoesNotThrow(() -> {
+                try (Connection connection = dataSource.getConnection();
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("SET lock_timeout = '1s'");
+                    statement.executeUpdate("""
+                            INSERT INTO tasks (title, completed, user_id, priority, is_deleted, created_at, updated_at)
+                            VALUES ('written meanwhile', true, 3, 'MEDIUM', false, now(), now())
+                            """);
+                }
+            });
+        });
+
+        assertEquals(0, reconciler.reconcile());
+    }
+}
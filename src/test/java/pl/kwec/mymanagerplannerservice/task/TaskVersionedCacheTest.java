@@ -0,0 +1,128 @@
+package pl.kwec.mymanagerplannerservice.task;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import pl.kwec.mymanagerplannerservice.config.CacheConfig;
+import pl.kwec.mymanagerplannerservice.task.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig
+@DisplayName("TaskService - statistics and overdue tasks cached per task version")
+class TaskVersionedCacheTest {
+
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockitoBean
+    private TaskRepository taskRepository;
+
+    @Test
+    @DisplayName("should reuse statistics within a version and reload them once the version moves")
+    void shouldKeyStatisticsByVersion() {
+        when(taskRepository.findVersion(eq(USER_ID), any())).thenReturn(new Version(1L, null));
+        when(taskRepository.countOverdueTasks(eq(USER_ID), any())).thenReturn(0L);
+        when(taskRepository.findStatisticsCounters(USER_ID)).thenReturn(List.of(new Row(false, 1L)));
+        final String first = taskService.getTasksETag(USER_ID);
+
+        assertEquals(1L, taskService.getTaskStatistics(USER_ID, first).getPendingCount());
+        assertEquals(1L, taskService.getTaskStatistics(USER_ID, first).getPendingCount());
+        verify(taskRepository, times(1)).findStatisticsCounters(USER_ID);
+
+        when(taskRepository.findVersion(eq(USER_ID), any())).thenReturn(new Version(2L, null));
+        when(taskRepository.findStatisticsCounters(USER_ID)).thenReturn(List.of(new Row(true, 1L)));
+        final String second = taskService.getTasksETag(USER_ID);
+
+        assertEquals(1L, taskService.getTaskStatistics(USER_ID, second).getCompletedCount());
+        verify(taskRepository, times(2)).findStatisticsCounters(USER_ID);
+    }
+
+    @Test
+    @DisplayName("should never serve an overdue list loaded before a write, even though nothing evicts it")
+    void shouldKeyOverdueTasksByVersion() {
+        final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 10, 0);
+        when(taskRepository.findVersion(eq(USER_ID), any())).thenReturn(new Version(1L, now));
+        when(taskRepository.findOverdueTasks(eq(USER_ID), any()))
+                .thenReturn(new ArrayList<>(List.of(TaskResponse.builder().id(7L).build())));
+        final String beforeWrite = taskService.getTasksETag(USER_ID);
+        assertEquals(1, taskService.getOverdueTasks(USER_ID, beforeWrite).size());
+
+        when(taskRepository.findVersion(eq(USER_ID), any())).thenReturn(new Version(2L, now));
+        when(taskRepository.findOverdueTasks(eq(USER_ID), any())).thenReturn(new ArrayList<>());
+        final String afterWrite = taskService.getTasksETag(USER_ID);
+
+        assertEquals(List.of(), taskService.getOverdueTasks(USER_ID, afterWrite));
+        assertEquals(1, taskService.getOverdueTasks(USER_ID, beforeWrite).size());
+    }
+
+    private record Version(Long version, LocalDateTime lastPassedDueDate) implements TaskVersion {
+
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+
+        @Override
+        public LocalDateTime getLastPassedDueDate() {
+            return lastPassedDueDate;
+        }
+    }
+
+    private record Row(Boolean completed, Long taskCount) implements TaskStatisticsRow {
+
+        @Override
+        public Boolean getCompleted() {
+            return completed;
+        }
+
+        @Override
+        public Task.Priority getPriority() {
+            return Task.Priority.MEDIUM;
+        }
+
+        @Override
+        public String getCategory() {
+            return null;
+        }
+
+        @Override
+        public Long getTaskCount() {
+            return taskCount;
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.TASK_STATISTICS_CACHE, CacheConfig.OVERDUE_TASKS_CACHE);
+        }
+
+        @Bean
+        TaskService taskService(final TaskRepository taskRepository, final ApplicationEventPublisher eventPublisher) {
+            return new TaskService(taskRepository, eventPublisher, null);
+        }
+    }
+}